@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.validator.BatchValidator;
+import org.azkfw.validator.RecordValidationListener;
+import org.azkfw.validator.RecordValidationResult;
+import org.azkfw.validator.Validator;
+import org.azkfw.validator.benchmark.model.UserListRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * このクラスは、NDJSONのバッチバリデーションのベンチマークです。
+ * 
+ * <p>
+ * スコアは1秒あたりのレコード数です。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+	private static final int RECORDS = 10000;
+
+	@Param({ "true", "false" })
+	private boolean valid;
+
+	private String data;
+
+	private BatchValidator sequential;
+
+	private BatchValidator pipeline;
+
+	@Setup
+	public void setup() {
+		data = Payloads.ndjson(RECORDS, 3, valid);
+
+		sequential = new BatchValidator(new Validator());
+		pipeline = new BatchValidator(new Validator());
+		pipeline.setPipeline(true);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public long sequential(final Blackhole bh) throws IOException {
+		return sequential.validate(new StringReader(data), UserListRequest.class, listener(bh));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public long pipeline(final Blackhole bh) throws IOException {
+		return pipeline.validate(new StringReader(data), UserListRequest.class, listener(bh));
+	}
+
+	private static RecordValidationListener listener(final Blackhole bh) {
+		return new RecordValidationListener() {
+			@Override
+			public void onRecord(final RecordValidationResult result) {
+				bh.consume(result.getResults().size());
+			}
+		};
+	}
+}
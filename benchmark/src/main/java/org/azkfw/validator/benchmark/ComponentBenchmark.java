@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.validator.ValidationResult;
+import org.azkfw.validator.Validator;
+import org.azkfw.validator.benchmark.model.UserDto;
+import org.azkfw.validator.benchmark.model.UserListRequest;
+import org.azkfw.validator.bundle.MessageBundle;
+import org.azkfw.validator.validation.PatternValidation;
+import org.azkfw.validator.validation.ValidationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、バリデーションを構成する部品単位のベンチマークです。
+ * 
+ * <p>
+ * バリデーション計画の構築、{@link PatternValidation} の照合、{@link MessageBundle#get} の検索を計測します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentBenchmark {
+
+	private static final String JSON = "{\"requestId\":\"r\",\"users\":[{\"id\":1,\"name\":\"a\"}]}";
+
+	private Validator validator;
+
+	private MessageBundle messages;
+
+	private PatternValidation pattern;
+
+	private ValidationContext matchContext;
+
+	private ValidationContext unmatchContext;
+
+	@Setup
+	public void setup() throws Exception {
+		validator = new Validator();
+		messages = new MessageBundle();
+
+		org.azkfw.validator.annotation.Pattern an = UserDto.class.getDeclaredField("mail").getAnnotation(
+				org.azkfw.validator.annotation.Pattern.class);
+		pattern = new PatternValidation("mail", an);
+		matchContext = new ValidationContext("user@example.com", "mail", "/mail", null, messages);
+		unmatchContext = new ValidationContext("USER@", "mail", "/mail", null, messages);
+	}
+
+	/**
+	 * 新しいバリデータで初回のバリデーションを行う。(バンドルの読み込みと計画の構築を含む)
+	 */
+	@Benchmark
+	public List<ValidationResult> coldValidator() {
+		return new Validator().validate(JSON, UserListRequest.class);
+	}
+
+	/**
+	 * 計画が構築済みのバリデータでバリデーションを行う。
+	 */
+	@Benchmark
+	public List<ValidationResult> warmValidator() {
+		return validator.validate(JSON, UserListRequest.class);
+	}
+
+	@Benchmark
+	public ValidationResult patternMatch() {
+		return pattern.validate(matchContext);
+	}
+
+	@Benchmark
+	public ValidationResult patternUnmatch() {
+		return pattern.validate(unmatchContext);
+	}
+
+	@Benchmark
+	public String bundleDefaultLocale() {
+		return messages.get("Required.required");
+	}
+
+	@Benchmark
+	public String bundleLocale() {
+		return messages.get("Required.required", Locale.ENGLISH);
+	}
+}
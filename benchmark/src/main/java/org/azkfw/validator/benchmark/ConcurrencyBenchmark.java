@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.validator.ValidationResult;
+import org.azkfw.validator.Validator;
+import org.azkfw.validator.benchmark.model.UserListRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、一つの {@link Validator} を複数スレッドで共有した場合のベンチマークです。
+ * 
+ * <p>
+ * スコアはスレッド数に関わらず全スレッドの合計スループットです。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrencyBenchmark {
+
+	@Param({ "true", "false" })
+	private boolean valid;
+
+	private String json;
+
+	private Validator validator;
+
+	@Setup
+	public void setup() {
+		json = Payloads.userList(100, valid);
+		validator = new Validator();
+		validator.setMaxErrors(Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public List<ValidationResult> singleThread() {
+		return validator.validate(new StringReader(json), UserListRequest.class);
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public List<ValidationResult> multiThread() {
+		return validator.validate(new StringReader(json), UserListRequest.class);
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.validator.ValidationEngine;
+import org.azkfw.validator.ValidationResult;
+import org.azkfw.validator.Validator;
+import org.azkfw.validator.benchmark.model.UserListRequest;
+import org.azkfw.validator.benchmark.model.WideDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+/**
+ * このクラスは、{@link ValidationEngine} 毎のバリデーションのベンチマークです。
+ * 
+ * <p>
+ * JSONの解析を除く為、解析済みのオブジェクトをバリデーションします。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+	@Param({ "INTERPRETED", "COMPILED" })
+	private ValidationEngine engine;
+
+	@Param({ "true", "false" })
+	private boolean valid;
+
+	private Object users;
+
+	private Object wide;
+
+	private Validator validator;
+
+	@Setup
+	public void setup() {
+		Gson gson = new Gson();
+		users = gson.fromJson(Payloads.userList(1000, valid), Object.class);
+		wide = gson.fromJson(Payloads.wide(100, valid), Object.class);
+		validator = new Validator();
+		validator.setMaxErrors(Integer.MAX_VALUE);
+		validator.setEngine(engine);
+	}
+
+	@Benchmark
+	public List<ValidationResult> users() {
+		return validator.validate(users, UserListRequest.class);
+	}
+
+	@Benchmark
+	public List<ValidationResult> wide() {
+		return validator.validate(wide, WideDto.class);
+	}
+}
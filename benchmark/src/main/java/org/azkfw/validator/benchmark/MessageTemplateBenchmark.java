@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.validator.bundle.MessageTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、エラーメッセージ生成のベンチマークです。
+ * 
+ * <p>
+ * キーワード毎に正規表現で置換する従来の方法と、 事前に解析した {@link MessageTemplate} による生成を比較します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+	private static final String MESSAGE = "Validate error.[Range maximum limit : ${name}][${path}]";
+
+	private Map<String, Object> keywords;
+
+	private MessageTemplate template;
+
+	@Setup
+	public void setup() {
+		keywords = new HashMap<String, Object>();
+		keywords.put("name", "userName");
+		keywords.put("value", Double.valueOf(120.0));
+		keywords.put("path", "/users/1024/name");
+
+		template = MessageTemplate.compile(MESSAGE);
+	}
+
+	@Benchmark
+	public String replaceAll() {
+		String buf = MESSAGE;
+		for (String key : keywords.keySet()) {
+			Object value = keywords.get(key);
+			if (null != value) {
+				buf = buf.replaceAll("\\$\\{" + key + "\\}", value.toString());
+			}
+		}
+		return buf;
+	}
+
+	@Benchmark
+	public String template() {
+		return template.render(keywords);
+	}
+}
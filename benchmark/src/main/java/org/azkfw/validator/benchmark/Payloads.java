@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark;
+
+/**
+ * このクラスは、ベンチマーク用のJSONを生成するクラスです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class Payloads {
+
+	private Payloads() {
+	}
+
+	/**
+	 * ユーザ情報のJSONを追記する。
+	 * 
+	 * @param s 追記先
+	 * @param index 番号
+	 * @param valid 正しいデータを生成する場合、<code>true</code>
+	 */
+	public static void appendUser(final StringBuilder s, final int index, final boolean valid) {
+		if (valid) {
+			s.append("{\"id\":").append(index + 1).append(",\"name\":\"user").append(index)
+					.append("\",\"mail\":\"user").append(index).append("@example.com\",\"age\":").append(index % 100)
+					.append('}');
+		} else {
+			s.append("{\"id\":0,\"name\":\"\",\"mail\":\"USER").append(index).append("@\",\"age\":").append(200)
+					.append('}');
+		}
+	}
+
+	/**
+	 * ユーザ一覧リクエストのJSONを生成する。
+	 * 
+	 * @param users ユーザ数
+	 * @param valid 正しいデータを生成する場合、<code>true</code>
+	 * @return JSON
+	 */
+	public static String userList(final int users, final boolean valid) {
+		StringBuilder s = new StringBuilder(users * 80 + 64);
+		s.append("{\"requestId\":\"r-1\",\"users\":[");
+		for (int i = 0; i < users; i++) {
+			if (0 < i) {
+				s.append(',');
+			}
+			appendUser(s, i, valid);
+		}
+		s.append("]}");
+		return s.toString();
+	}
+
+	/**
+	 * 改行区切りのユーザ一覧リクエストを生成する。
+	 * 
+	 * @param records レコード数
+	 * @param users 1レコードのユーザ数
+	 * @param valid 正しいデータを生成する場合、<code>true</code>
+	 * @return NDJSON
+	 */
+	public static String ndjson(final int records, final int users, final boolean valid) {
+		String record = userList(users, valid);
+		StringBuilder s = new StringBuilder((record.length() + 1) * records);
+		for (int i = 0; i < records; i++) {
+			s.append(record).append('\n');
+		}
+		return s.toString();
+	}
+
+	/**
+	 * 入れ子のノードのJSONを生成する。
+	 * 
+	 * @param depth 深さ
+	 * @param valid 正しいデータを生成する場合、<code>true</code>
+	 * @return JSON
+	 */
+	public static String deep(final int depth, final boolean valid) {
+		StringBuilder s = new StringBuilder(depth * 32);
+		for (int i = 0; i < depth; i++) {
+			s.append("{\"name\":\"").append(valid ? "n" + i : "").append("\",\"child\":");
+		}
+		s.append("null");
+		for (int i = 0; i < depth; i++) {
+			s.append('}');
+		}
+		return s.toString();
+	}
+
+	/**
+	 * フィールド数の多いオブジェクトの配列のJSONを生成する。
+	 * 
+	 * @param count 要素数
+	 * @param valid 正しいデータを生成する場合、<code>true</code>
+	 * @return JSON
+	 */
+	public static String wide(final int count, final boolean valid) {
+		StringBuilder s = new StringBuilder(count * 400);
+		s.append('[');
+		for (int c = 0; c < count; c++) {
+			if (0 < c) {
+				s.append(',');
+			}
+			s.append('{');
+			for (int i = 0; i < 32; i++) {
+				if (0 < i) {
+					s.append(',');
+				}
+				if (0 == i % 2) {
+					s.append(String.format("\"s%02d\":\"%s\"", i, valid ? "v" : ""));
+				} else {
+					s.append(String.format("\"n%02d\":%d", i, valid ? i : 5000));
+				}
+			}
+			s.append('}');
+		}
+		s.append(']');
+		return s.toString();
+	}
+}
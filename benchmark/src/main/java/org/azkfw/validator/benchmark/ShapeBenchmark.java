@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.azkfw.validator.ValidationResult;
+import org.azkfw.validator.Validator;
+import org.azkfw.validator.benchmark.model.NodeDto;
+import org.azkfw.validator.benchmark.model.WideDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * このクラスは、ドキュメントの形状毎のバリデーションのベンチマークです。
+ * 
+ * <p>
+ * 深い入れ子のオブジェクトと、フィールド数の多いオブジェクトの配列を対象とします。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShapeBenchmark {
+
+	/** 入れ子の深さ */
+	private static final int DEPTH = 64;
+
+	/** 配列の要素数 */
+	private static final int COUNT = 100;
+
+	@Param({ "true", "false" })
+	private boolean valid;
+
+	private String deep;
+
+	private String wide;
+
+	private Validator validator;
+
+	@Setup
+	public void setup() {
+		deep = Payloads.deep(DEPTH, valid);
+		wide = Payloads.wide(COUNT, valid);
+		validator = new Validator();
+		validator.setMaxErrors(Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public List<ValidationResult> deepString() {
+		return validator.validate(deep, NodeDto.class);
+	}
+
+	@Benchmark
+	public List<ValidationResult> deepStream() {
+		return validator.validate(new StringReader(deep), NodeDto.class);
+	}
+
+	@Benchmark
+	public List<ValidationResult> wideString() {
+		return validator.validate(wide, WideDto.class);
+	}
+
+	@Benchmark
+	public List<ValidationResult> wideStream() {
+		return validator.validate(new StringReader(wide), WideDto.class);
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark.model;
+
+import java.util.List;
+
+import org.azkfw.validator.annotation.NotEmpty;
+import org.azkfw.validator.annotation.NotNull;
+import org.azkfw.validator.annotation.Required;
+import org.codehaus.jackson.annotate.JsonProperty;
+
+/**
+ * ベンチマーク用の再帰構造のノード
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public class NodeDto {
+
+	@Required(order = 1)
+	@NotNull(order = 2)
+	@NotEmpty(order = 3)
+	@JsonProperty("name")
+	private String name;
+
+	@JsonProperty("child")
+	private NodeDto child;
+
+	@JsonProperty("children")
+	private List<NodeDto> children;
+}
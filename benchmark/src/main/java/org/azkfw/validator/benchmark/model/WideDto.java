@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.benchmark.model;
+
+import org.azkfw.validator.annotation.NotEmpty;
+import org.azkfw.validator.annotation.Range;
+import org.azkfw.validator.annotation.Required;
+import org.codehaus.jackson.annotate.JsonProperty;
+
+/**
+ * ベンチマーク用のフィールド数の多いオブジェクト
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public class WideDto {
+
+	/** 文字列フィールドと数値フィールドを交互に持つフィールド数 */
+	public static final int FIELDS = 32;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s00")
+	private String s00;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n01")
+	private int n01;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s02")
+	private String s02;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n03")
+	private int n03;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s04")
+	private String s04;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n05")
+	private int n05;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s06")
+	private String s06;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n07")
+	private int n07;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s08")
+	private String s08;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n09")
+	private int n09;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s10")
+	private String s10;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n11")
+	private int n11;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s12")
+	private String s12;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n13")
+	private int n13;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s14")
+	private String s14;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n15")
+	private int n15;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s16")
+	private String s16;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n17")
+	private int n17;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s18")
+	private String s18;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n19")
+	private int n19;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s20")
+	private String s20;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n21")
+	private int n21;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s22")
+	private String s22;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n23")
+	private int n23;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s24")
+	private String s24;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n25")
+	private int n25;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s26")
+	private String s26;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n27")
+	private int n27;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s28")
+	private String s28;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n29")
+	private int n29;
+
+	@Required(order = 1)
+	@NotEmpty(order = 2)
+	@JsonProperty("s30")
+	private String s30;
+
+	@Required(order = 1)
+	@Range(min = 0, max = 1000, order = 2)
+	@JsonProperty("n31")
+	private int n31;
+}
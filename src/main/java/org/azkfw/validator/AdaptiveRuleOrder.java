@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このクラスは、フィールドのバリデーションの実行順をサンプリングから学習するクラスです。
+ * 
+ * <p>
+ * サンプリングした呼び出しではすべてのバリデーションを実行し、 バリデーション毎の失敗数と時間を記録します。
+ * {@link #REORDER_SAMPLES} 回のサンプリング毎に、コスト/失敗率の小さい順に実行順を並び替えます。
+ * 失敗率は (失敗数 + 1) / (サンプリング数 + 2) で推定し、同じ値の場合は宣言順とします。
+ * 実行順は不変の配列として公開される為、参照はロックを必要としません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+final class AdaptiveRuleOrder {
+
+	/** 並び替えを行うサンプリング数 */
+	static final int REORDER_SAMPLES = 32;
+
+	/** 宣言順のバリデーション一覧 */
+	private final Validation[] declared;
+
+	/** 呼び出し数({@link RuleOrdering#DETERMINISTIC} の場合のみ使用) */
+	private final AtomicLong calls;
+
+	/** サンプリング数 */
+	private final AtomicLong samples;
+
+	/** バリデーション毎の失敗数 */
+	private final AtomicLongArray failures;
+
+	/** バリデーション毎の時間(ナノ秒) */
+	private final AtomicLongArray nanos;
+
+	/** 現在の実行順 */
+	private volatile Validation[] current;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param declared 宣言順のバリデーション一覧
+	 */
+	AdaptiveRuleOrder(final Validation[] declared) {
+		this.declared = declared;
+		this.calls = new AtomicLong();
+		this.samples = new AtomicLong();
+		this.failures = new AtomicLongArray(declared.length);
+		this.nanos = new AtomicLongArray(declared.length);
+		this.current = declared;
+	}
+
+	/**
+	 * 現在の実行順のバリデーション一覧を取得する。
+	 * 
+	 * @return バリデーション一覧
+	 */
+	Validation[] validations() {
+		return current;
+	}
+
+	/**
+	 * サンプリングする呼び出しか判断する。
+	 * <p>
+	 * 通常はスレッド毎の乱数で平均 <code>interval</code> 回に一回を選び、共有のカウンタで競合しないようにする。
+	 * <code>deterministic</code> の場合、再現性の為に共有のカウンタで呼び出しを数える。
+	 * </p>
+	 * 
+	 * @param interval サンプリング間隔
+	 * @param deterministic 呼び出しを数える場合、<code>true</code>
+	 * @return サンプリングする場合、<code>true</code>
+	 */
+	boolean sample(final int interval, final boolean deterministic) {
+		if (1 == interval) {
+			return true;
+		}
+		if (deterministic) {
+			return 0 == calls.incrementAndGet() % interval;
+		}
+		return 0 == ThreadLocalRandom.current().nextInt(interval);
+	}
+
+	/**
+	 * バリデーションの結果を記録する。
+	 * 
+	 * @param validation バリデーション
+	 * @param time 時間(ナノ秒)
+	 * @param failed 失敗した場合、<code>true</code>
+	 */
+	void record(final Validation validation, final long time, final boolean failed) {
+		for (int i = 0; i < declared.length; i++) {
+			if (declared[i] == validation) {
+				nanos.addAndGet(i, time);
+				if (failed) {
+					failures.incrementAndGet(i);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * サンプリングの完了を記録し、必要に応じて実行順を並び替える。
+	 * 
+	 * @param useCost コストを使用する場合、<code>true</code>。<code>false</code>の場合、失敗率のみを使用する
+	 */
+	void sampled(final boolean useCost) {
+		if (0 == samples.incrementAndGet() % REORDER_SAMPLES) {
+			current = reorder(useCost);
+		}
+	}
+
+	/**
+	 * 学習した実行順を求める。
+	 * 
+	 * @param useCost コストを使用する場合、<code>true</code>
+	 * @return バリデーション一覧
+	 */
+	private Validation[] reorder(final boolean useCost) {
+		final long n = samples.get();
+		final double[] scores = new double[declared.length];
+		Integer[] indexes = new Integer[declared.length];
+		for (int i = 0; i < declared.length; i++) {
+			double rate = (failures.get(i) + 1.0) / (n + 2.0);
+			double cost = useCost ? Math.max(1.0, (double) nanos.get(i) / Math.max(1, n)) : 1.0;
+			scores[i] = cost / rate;
+			indexes[i] = i;
+		}
+		Arrays.sort(indexes, new Comparator<Integer>() {
+			@Override
+			public int compare(final Integer o1, final Integer o2) {
+				int result = Double.compare(scores[o1], scores[o2]);
+				return (0 != result) ? result : o1 - o2;
+			}
+		});
+
+		Validation[] order = new Validation[declared.length];
+		for (int i = 0; i < indexes.length; i++) {
+			order[i] = declared[indexes[i]];
+		}
+		return order;
+	}
+
+	/**
+	 * 宣言順のバリデーション一覧を取得する。
+	 * 
+	 * @return バリデーション一覧
+	 */
+	Validation[] declared() {
+		return declared;
+	}
+
+	/**
+	 * サンプリング数を取得する。
+	 * 
+	 * @return サンプリング数
+	 */
+	long getSamples() {
+		return samples.get();
+	}
+
+	/**
+	 * 宣言順の位置のバリデーションの失敗数を取得する。
+	 * 
+	 * @param index 宣言順の位置
+	 * @return 失敗数
+	 */
+	long getFailures(final int index) {
+		return failures.get(index);
+	}
+
+	/**
+	 * 宣言順の位置のバリデーションの時間を取得する。
+	 * 
+	 * @param index 宣言順の位置
+	 * @return 時間(ナノ秒)
+	 */
+	long getNanos(final int index) {
+		return nanos.get(index);
+	}
+}
@@ -0,0 +1,253 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * このクラスは、バリデーションを非同期に行うクラスです。
+ * 
+ * <p>
+ * バリデーションは指定された {@link Executor} で実行され、結果は {@link CompletableFuture} で返されます。
+ * 仮想スレッドを使用する {@link Executor} を含め、任意の {@link Executor} を使用できます。
+ * </p>
+ * 
+ * <p>
+ * 同時に実行するバリデーション数は最大同時実行数で制限されます。 上限を超えた要求は内部のキューで待機し、
+ * 実行中のバリデーションが終了した時点で {@link Executor} に投入されます。 呼び出し元のスレッドがブロックされることはありません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class AsyncValidator {
+
+	private final Validator validator;
+
+	private final Executor executor;
+
+	/** 最大同時実行数 */
+	private final int maxConcurrency;
+
+	/** 実行待ちの要求 */
+	private final Queue<Task> pending;
+
+	/** 実行中の要求数 */
+	private final AtomicInteger running;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * バリデータの {@link java.util.concurrent.ForkJoinPool} で実行し、同時実行数はプールの並列度とする。
+	 * </p>
+	 * 
+	 * @param validator バリデータ
+	 */
+	public AsyncValidator(final Validator validator) {
+		this(validator, validator.getForkJoinPool(), validator.getForkJoinPool().getParallelism());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param validator バリデータ
+	 * @param executor 実行に使用する {@link Executor}
+	 * @param maxConcurrency 最大同時実行数
+	 */
+	public AsyncValidator(final Validator validator, final Executor executor, final int maxConcurrency) {
+		this.validator = validator;
+		this.executor = executor;
+		this.maxConcurrency = Math.max(1, maxConcurrency);
+		this.pending = new ConcurrentLinkedQueue<Task>();
+		this.running = new AtomicInteger();
+	}
+
+	/**
+	 * JSON文字列を非同期にバリデーションする。
+	 * 
+	 * @param data JSON文字列
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 */
+	public CompletableFuture<List<ValidationResult>> validate(final String data, final Class<?> clazz) {
+		return submit(new Callable<List<ValidationResult>>() {
+			@Override
+			public List<ValidationResult> call() {
+				return validator.validate(data, clazz);
+			}
+		});
+	}
+
+	/**
+	 * JSONのバイト列を非同期にバリデーションする。
+	 * 
+	 * @param data JSONバイト列
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 */
+	public CompletableFuture<List<ValidationResult>> validate(final byte[] data, final Class<?> clazz) {
+		return submit(new Callable<List<ValidationResult>>() {
+			@Override
+			public List<ValidationResult> call() {
+				return validator.validate(data, clazz);
+			}
+		});
+	}
+
+	/**
+	 * オブジェクトを非同期にバリデーションする。
+	 * 
+	 * @param data オブジェクト({@link java.util.Map}、{@link java.util.List}、POJO)
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 */
+	public CompletableFuture<List<ValidationResult>> validate(final Object data, final Class<?> clazz) {
+		return submit(new Callable<List<ValidationResult>>() {
+			@Override
+			public List<ValidationResult> call() {
+				return validator.validate(data, clazz);
+			}
+		});
+	}
+
+	/**
+	 * 複数のJSON文字列を非同期にバリデーションする。
+	 * 
+	 * @param documents JSON文字列一覧
+	 * @param clazz バリデーションクラス
+	 * @return ドキュメント毎のバリデーション結果(入力順)
+	 */
+	public CompletableFuture<List<List<ValidationResult>>> validateAll(final Collection<String> documents,
+			final Class<?> clazz) {
+		final List<CompletableFuture<List<ValidationResult>>> futures = new ArrayList<CompletableFuture<List<ValidationResult>>>(
+				documents.size());
+		for (String document : documents) {
+			futures.add(validate(document, clazz));
+		}
+
+		CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+		return all.thenApply(new Function<Void, List<List<ValidationResult>>>() {
+			@Override
+			public List<List<ValidationResult>> apply(final Void v) {
+				List<List<ValidationResult>> results = new ArrayList<List<ValidationResult>>(futures.size());
+				for (CompletableFuture<List<ValidationResult>> future : futures) {
+					results.add(future.join());
+				}
+				return results;
+			}
+		});
+	}
+
+	/**
+	 * 最大同時実行数を取得する。
+	 * 
+	 * @return 最大同時実行数
+	 */
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * 実行待ちの要求数を取得する。
+	 * 
+	 * @return 要求数
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * 要求をキューに追加し、実行可能な要求を {@link Executor} に投入する。
+	 * 
+	 * @param callable バリデーション
+	 * @return バリデーション結果
+	 */
+	private CompletableFuture<List<ValidationResult>> submit(final Callable<List<ValidationResult>> callable) {
+		Task task = new Task(callable);
+		pending.offer(task);
+		drain();
+		return task.future;
+	}
+
+	/**
+	 * 最大同時実行数まで要求を {@link Executor} に投入する。
+	 */
+	private void drain() {
+		while (!pending.isEmpty()) {
+			int current = running.get();
+			if (current >= maxConcurrency) {
+				return;
+			}
+			if (!running.compareAndSet(current, current + 1)) {
+				continue;
+			}
+
+			Task task = pending.poll();
+			if (null == task) {
+				running.decrementAndGet();
+				continue;
+			}
+			try {
+				executor.execute(task);
+			} catch (RejectedExecutionException ex) {
+				running.decrementAndGet();
+				task.future.completeExceptionally(ex);
+			}
+		}
+	}
+
+	/**
+	 * このクラスは、実行待ちの要求を保持するクラスです。
+	 */
+	private final class Task implements Runnable {
+
+		private final Callable<List<ValidationResult>> callable;
+
+		private final CompletableFuture<List<ValidationResult>> future;
+
+		private Task(final Callable<List<ValidationResult>> callable) {
+			this.callable = callable;
+			this.future = new CompletableFuture<List<ValidationResult>>();
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (!future.isDone()) {
+					future.complete(callable.call());
+				}
+			} catch (Throwable ex) {
+				future.completeExceptionally(ex);
+			} finally {
+				running.decrementAndGet();
+				drain();
+			}
+		}
+	}
+}
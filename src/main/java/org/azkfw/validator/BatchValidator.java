@@ -0,0 +1,396 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+
+/**
+ * このクラスは、改行区切りJSON(NDJSON)のレコードを連続してバリデーションするクラスです。
+ * 
+ * <p>
+ * 入力は再利用される文字バッファ上で行に分割され、行毎の文字列を生成せずに {@link JsonParser} へ渡されます。
+ * パイプラインを有効にした場合、入力の読み込みと行の分割を別スレッドで行い、 呼び出し元スレッドはバリデーションのみを行います。
+ * 空行はレコードとして扱いません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class BatchValidator {
+
+	/** UTF-8 */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** 初期バッファサイズ */
+	private static final int BUFFER_SIZE = 8192;
+
+	/** パイプラインで一度に受け渡すレコード数 */
+	private static final int BATCH_SIZE = 256;
+
+	/** キューへの追加を待つ間隔(ミリ秒) */
+	private static final long OFFER_TIMEOUT = 100;
+
+	private final Validator validator;
+
+	/** パイプライン */
+	private boolean pipeline;
+
+	/** パイプラインのキューサイズ(バッチ数) */
+	private int queueCapacity;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param validator バリデータ
+	 */
+	public BatchValidator(final Validator validator) {
+		this.validator = validator;
+		this.pipeline = false;
+		this.queueCapacity = 16;
+	}
+
+	/**
+	 * 読み込みとバリデーションを別スレッドで行うか設定する。
+	 * 
+	 * @param pipeline 別スレッドで行う場合、<code>true</code>
+	 */
+	public void setPipeline(final boolean pipeline) {
+		this.pipeline = pipeline;
+	}
+
+	/**
+	 * パイプラインのキューサイズを設定する。
+	 * 
+	 * @param capacity キューサイズ(バッチ数)
+	 */
+	public void setQueueCapacity(final int capacity) {
+		this.queueCapacity = capacity;
+	}
+
+	/**
+	 * UTF-8のNDJSONストリームをバリデーションする。
+	 * 
+	 * @param stream 入力ストリーム
+	 * @param clazz バリデーションクラス
+	 * @param listener 結果を受け取るリスナー
+	 * @return レコード数
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public long validate(final InputStream stream, final Class<?> clazz, final RecordValidationListener listener)
+			throws IOException {
+		return validate(new InputStreamReader(stream, UTF8), clazz, listener);
+	}
+
+	/**
+	 * NDJSONをバリデーションする。
+	 * 
+	 * @param reader リーダー
+	 * @param clazz バリデーションクラス
+	 * @param listener 結果を受け取るリスナー
+	 * @return レコード数
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public long validate(final Reader reader, final Class<?> clazz, final RecordValidationListener listener)
+			throws IOException {
+		if (pipeline) {
+			return validatePipeline(reader, clazz, listener);
+		}
+
+		final JsonFactory factory = validator.getJsonFactory();
+		return split(reader, new LineHandler() {
+			@Override
+			public void onLine(final char[] buffer, final int offset, final int length, final long index)
+					throws IOException {
+				validateRecord(factory, buffer, offset, length, index, clazz, listener);
+			}
+		});
+	}
+
+	/**
+	 * レコードの一覧をバリデーションする。
+	 * 
+	 * @param records レコード一覧
+	 * @param clazz バリデーションクラス
+	 * @param listener 結果を受け取るリスナー
+	 * @return レコード数
+	 * @throws UncheckedIOException 入出力エラーが発生した場合
+	 */
+	public long validate(final Iterable<String> records, final Class<?> clazz, final RecordValidationListener listener) {
+		final JsonFactory factory = validator.getJsonFactory();
+		long index = 0;
+		for (String record : records) {
+			List<ValidationResult> results;
+			try {
+				JsonParser parser = factory.createJsonParser(record);
+				try {
+					results = validator.validate(parser, clazz);
+				} finally {
+					parser.close();
+				}
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			listener.onRecord(new RecordValidationResult(index++, results));
+		}
+		return index;
+	}
+
+	private void validateRecord(final JsonFactory factory, final char[] buffer, final int offset, final int length,
+			final long index, final Class<?> clazz, final RecordValidationListener listener) throws IOException {
+		JsonParser parser = factory.createJsonParser(new CharArrayReader(buffer, offset, length));
+		List<ValidationResult> results;
+		try {
+			results = validator.validate(parser, clazz);
+		} finally {
+			parser.close();
+		}
+		listener.onRecord(new RecordValidationResult(index, results));
+	}
+
+	private long validatePipeline(final Reader reader, final Class<?> clazz, final RecordValidationListener listener)
+			throws IOException {
+		final BlockingQueue<List<char[]>> queue = new ArrayBlockingQueue<List<char[]>>(Math.max(1, queueCapacity));
+		final List<char[]> end = new ArrayList<char[]>(0);
+		final AtomicBoolean stopped = new AtomicBoolean(false);
+		final IOException[] error = new IOException[1];
+
+		Thread producer = new Thread("azuki-validator-batch-reader") {
+			@Override
+			public void run() {
+				try {
+					final List<List<char[]>> batch = new ArrayList<List<char[]>>(1);
+					batch.add(new ArrayList<char[]>(BATCH_SIZE));
+					split(reader, new LineHandler() {
+						@Override
+						public void onLine(final char[] buffer, final int offset, final int length, final long index)
+								throws IOException {
+							if (stopped.get()) {
+								throw new InterruptedIOException();
+							}
+							List<char[]> records = batch.get(0);
+							records.add(Arrays.copyOfRange(buffer, offset, offset + length));
+							if (records.size() >= BATCH_SIZE) {
+								offer(queue, records, stopped);
+								batch.set(0, new ArrayList<char[]>(BATCH_SIZE));
+							}
+						}
+					});
+					if (!batch.get(0).isEmpty()) {
+						offer(queue, batch.get(0), stopped);
+					}
+				} catch (IOException ex) {
+					if (!stopped.get()) {
+						error[0] = ex;
+					}
+				} catch (RuntimeException ex) {
+					if (!stopped.get()) {
+						error[0] = new IOException(ex);
+					}
+				} finally {
+					if (!stopped.get()) {
+						try {
+							offer(queue, end, stopped);
+						} catch (InterruptedIOException ex) {
+							// 呼び出し元が終了済み
+						}
+					}
+				}
+			}
+		};
+		producer.setDaemon(true);
+		producer.start();
+
+		final JsonFactory factory = validator.getJsonFactory();
+		long index = 0;
+		boolean completed = false;
+		try {
+			while (true) {
+				List<char[]> records = queue.take();
+				if (end == records) {
+					break;
+				}
+				for (char[] record : records) {
+					validateRecord(factory, record, 0, record.length, index++, clazz, listener);
+				}
+			}
+			completed = true;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} finally {
+			if (!completed) {
+				// 読み込みスレッドを停止させ、キューに残ったレコードを破棄する
+				stopped.set(true);
+				producer.interrupt();
+				queue.clear();
+			}
+			join(producer);
+		}
+
+		if (null != error[0]) {
+			throw error[0];
+		}
+		return index;
+	}
+
+	/**
+	 * レコードをキューへ追加する。
+	 * <p>
+	 * 呼び出し元が終了した場合は追加せずに {@link InterruptedIOException} をスローする。
+	 * </p>
+	 * 
+	 * @param queue キュー
+	 * @param records レコード
+	 * @param stopped 呼び出し元の終了フラグ
+	 * @throws InterruptedIOException 呼び出し元が終了した場合
+	 */
+	private static void offer(final BlockingQueue<List<char[]>> queue, final List<char[]> records,
+			final AtomicBoolean stopped) throws InterruptedIOException {
+		while (!stopped.get()) {
+			try {
+				if (queue.offer(records, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			} catch (InterruptedException ex) {
+				// 終了フラグを確認する
+			}
+		}
+		throw new InterruptedIOException();
+	}
+
+	/**
+	 * スレッドの終了を待つ。
+	 * <p>
+	 * 待機中に割り込まれた場合も終了まで待ち、割り込み状態を復元する。
+	 * </p>
+	 * 
+	 * @param thread スレッド
+	 */
+	private static void join(final Thread thread) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				thread.join();
+				break;
+			} catch (InterruptedException ex) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 入力を行に分割する。
+	 * 
+	 * @param reader リーダー
+	 * @param handler 行を受け取るハンドラ
+	 * @return 空行を除いた行数
+	 */
+	private static long split(final Reader reader, final LineHandler handler) throws IOException {
+		char[] buffer = new char[BUFFER_SIZE];
+		int start = 0;
+		int end = 0;
+		int scan = 0;
+		long index = 0;
+
+		while (true) {
+			int newline = -1;
+			for (int i = scan; i < end; i++) {
+				if ('\n' == buffer[i]) {
+					newline = i;
+					break;
+				}
+			}
+
+			if (-1 != newline) {
+				if (emit(buffer, start, newline, index, handler)) {
+					index++;
+				}
+				start = newline + 1;
+				scan = start;
+				continue;
+			}
+
+			if (0 < start) {
+				System.arraycopy(buffer, start, buffer, 0, end - start);
+				end -= start;
+				start = 0;
+			}
+			scan = end;
+			if (end == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+
+			int size = reader.read(buffer, end, buffer.length - end);
+			if (-1 == size) {
+				if (emit(buffer, start, end, index, handler)) {
+					index++;
+				}
+				break;
+			}
+			end += size;
+		}
+		return index;
+	}
+
+	private static boolean emit(final char[] buffer, final int start, final int end, final long index,
+			final LineHandler handler) throws IOException {
+		int s = start;
+		int e = end;
+		while (s < e && Character.isWhitespace(buffer[s])) {
+			s++;
+		}
+		while (s < e && Character.isWhitespace(buffer[e - 1])) {
+			e--;
+		}
+		if (s == e) {
+			return false;
+		}
+		handler.onLine(buffer, s, e - s, index);
+		return true;
+	}
+
+	/**
+	 * このインターフェースは、分割した行を受け取る為のインターフェースです。
+	 */
+	private static interface LineHandler {
+
+		public void onLine(final char[] buffer, final int offset, final int length, final long index)
+				throws IOException;
+	}
+}
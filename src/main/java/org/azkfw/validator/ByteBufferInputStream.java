@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * このクラスは、{@link ByteBuffer} の残りのバイトを読み込む入力ストリームクラスです。
+ *
+ * <p>
+ * ダイレクトバッファをヒープにコピーせずにパーサへ渡す為に使用します。 呼び出し元のバッファの位置は変更しません。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+final class ByteBufferInputStream extends InputStream {
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param buffer バッファ
+	 */
+	ByteBufferInputStream(final ByteBuffer buffer) {
+		this.buffer = buffer.duplicate();
+	}
+
+	@Override
+	public int read() {
+		if (!buffer.hasRemaining()) {
+			return -1;
+		}
+		return buffer.get() & 0xff;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len) {
+		if (0 == len) {
+			return 0;
+		}
+		int remaining = buffer.remaining();
+		if (0 == remaining) {
+			return -1;
+		}
+		int length = Math.min(len, remaining);
+		buffer.get(b, off, length);
+		return length;
+	}
+
+	@Override
+	public long skip(final long n) {
+		int length = (int) Math.max(0, Math.min(n, buffer.remaining()));
+		buffer.position(buffer.position() + length);
+		return length;
+	}
+
+	@Override
+	public int available() {
+		return buffer.remaining();
+	}
+}
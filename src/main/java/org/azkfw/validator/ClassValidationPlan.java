@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、クラス単位のバリデーション計画を保持するクラスです。
+ *
+ * <p>
+ * スーパークラスを含むフィールドをスーパークラス側から順に平坦化して保持します。 計画は不変であり、複数スレッドから共有できます。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class ClassValidationPlan {
+
+	/** 対象クラス */
+	private final Class<?> type;
+
+	/** フィールド計画一覧 */
+	private final FieldValidationPlan[] fields;
+
+	/** バリデーションまたは入れ子のチェックを持つフィールド計画一覧 */
+	private final FieldValidationPlan[] checkedFields;
+
+	/** フィールド位置毎のバリデーションまたは入れ子のチェックの有無 */
+	private final boolean[] checked;
+
+	/** 名前とフィールド位置のマップ */
+	private final Map<String, Integer> indexMap;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param type 対象クラス
+	 * @param fields フィールド計画一覧
+	 */
+	ClassValidationPlan(final Class<?> type, final List<FieldValidationPlan> fields) {
+		this.type = type;
+		this.fields = fields.toArray(new FieldValidationPlan[fields.size()]);
+
+		List<FieldValidationPlan> checkedList = new ArrayList<FieldValidationPlan>();
+		this.checked = new boolean[this.fields.length];
+		for (int i = 0; i < this.fields.length; i++) {
+			FieldValidationPlan field = this.fields[i];
+			if (0 < field.validations().length || field.getModel().isStructured()) {
+				checkedList.add(field);
+				this.checked[i] = true;
+			}
+		}
+		this.checkedFields = checkedList.toArray(new FieldValidationPlan[checkedList.size()]);
+
+		Map<String, Integer> map = new HashMap<String, Integer>();
+		for (int i = 0; i < this.fields.length; i++) {
+			map.put(this.fields[i].getName(), i);
+		}
+		this.indexMap = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * 対象クラスを取得する。
+	 *
+	 * @return 対象クラス
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * フィールド計画一覧を取得する。
+	 *
+	 * @return フィールド計画一覧
+	 */
+	public List<FieldValidationPlan> getFields() {
+		return Collections.unmodifiableList(Arrays.asList(fields));
+	}
+
+	/**
+	 * 名前からフィールド計画を取得する。
+	 *
+	 * @param name 名前(JSONプロパティ名)
+	 * @return フィールド計画。存在しない場合、<code>null</code>
+	 */
+	public FieldValidationPlan getField(final String name) {
+		int index = indexOf(name);
+		return (-1 == index) ? null : fields[index];
+	}
+
+	/**
+	 * 名前からフィールド計画の位置を取得する。
+	 *
+	 * @param name 名前(JSONプロパティ名)
+	 * @return 位置。存在しない場合、<code>-1</code>
+	 */
+	public int indexOf(final String name) {
+		Integer index = indexMap.get(name);
+		return (null == index) ? -1 : index.intValue();
+	}
+
+	/**
+	 * フィールド計画配列を取得する。
+	 *
+	 * @return フィールド計画配列
+	 */
+	FieldValidationPlan[] fields() {
+		return fields;
+	}
+
+	/**
+	 * バリデーションまたは入れ子のチェックを持つフィールド計画配列を取得する。
+	 * <p>
+	 * バリデーションを持たないスカラー型のフィールドは値を取得する必要がない為、含まない。
+	 * </p>
+	 *
+	 * @return フィールド計画配列
+	 */
+	FieldValidationPlan[] checkedFields() {
+		return checkedFields;
+	}
+
+	/**
+	 * フィールドがバリデーションまたは入れ子のチェックを持つか判断する。
+	 *
+	 * @param index フィールド位置
+	 * @return 持つ場合、<code>true</code>
+	 */
+	boolean isChecked(final int index) {
+		return checked[index];
+	}
+}
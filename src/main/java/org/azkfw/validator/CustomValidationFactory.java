@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このインターフェースは、ユーザ定義バリデーションのインスタンスを生成する為のインターフェースです。
+ * 
+ * <p>
+ * {@link Validator#setCustomValidationFactory(CustomValidationFactory)} で設定し、DIコンテナからの取得などに使用します。
+ * インスタンスはバリデーション計画の構築時にフィールドのバリデーション毎に一度だけ生成され、以降の呼び出しで再利用されます。
+ * {@link org.azkfw.validator.annotation.NotThreadSafe} が付与されたクラスはスレッド毎に生成されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public interface CustomValidationFactory {
+
+	/**
+	 * ユーザ定義バリデーションを生成する。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション
+	 * @throws Exception 生成に失敗した場合
+	 */
+	public Validation create(final Class<? extends Validation> clazz) throws Exception;
+
+}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.azkfw.validator.validation.MaximumValidation;
+import org.azkfw.validator.validation.MinimumValidation;
+import org.azkfw.validator.validation.NotEmptyValidation;
+import org.azkfw.validator.validation.NotNullValidation;
+import org.azkfw.validator.validation.NumericValidation;
+import org.azkfw.validator.validation.PatternValidation;
+import org.azkfw.validator.validation.RangeValidation;
+import org.azkfw.validator.validation.RequiredValidation;
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このクラスは、フィールドの組み込みバリデーションを一つの {@link MethodHandle} に合成するクラスです。
+ * 
+ * <p>
+ * 合成されたハンドルの型は <code>(Object value, boolean present)int</code> で、 実行順で最初に失敗したバリデーションの位置を、
+ * すべて成功した場合は <code>-1</code> を返します。 各チェックは定数を束縛した静的メソッドで、
+ * {@link MethodHandles#guardWithTest} により実行順に直列に連結されるため、 仮想呼び出しや {@link Validation}
+ * の型判定を介さずに評価されます。
+ * </p>
+ * 
+ * <p>
+ * ユーザ定義バリデーションを持つフィールドは合成できないため、<code>null</code>を返します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+final class FieldValidationCompiler {
+
+	/** 合成したハンドルの型 */
+	static final MethodType TYPE = MethodType.methodType(int.class, Object.class, boolean.class);
+
+	private static final MethodHandle REQUIRED;
+	private static final MethodHandle NOT_NULL;
+	private static final MethodHandle NOT_EMPTY;
+	private static final MethodHandle NUMBER;
+	private static final MethodHandle PATTERN;
+
+	static {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		Class<?> c = FieldValidationCompiler.class;
+		try {
+			REQUIRED = lookup.findStatic(c, "required", MethodType.methodType(boolean.class, boolean.class));
+			NOT_NULL = lookup.findStatic(c, "notNull", MethodType.methodType(boolean.class, Object.class));
+			NOT_EMPTY = lookup.findStatic(c, "notEmpty", MethodType.methodType(boolean.class, Object.class));
+			NUMBER = lookup.findStatic(c, "number",
+					MethodType.methodType(boolean.class, NumericValidation.class, Object.class));
+			PATTERN = lookup.findStatic(c, "pattern",
+					MethodType.methodType(boolean.class, Pattern.class, Object.class));
+		} catch (ReflectiveOperationException ex) {
+			throw new ExceptionInInitializerError(ex);
+		}
+	}
+
+	private FieldValidationCompiler() {
+	}
+
+	/**
+	 * バリデーション一覧を合成する。
+	 * 
+	 * @param validations バリデーション一覧(実行順)
+	 * @return 合成したハンドル。合成できない場合、<code>null</code>
+	 */
+	public static MethodHandle compile(final List<Validation> validations) {
+		MethodHandle handle = MethodHandles.dropArguments(MethodHandles.constant(int.class, -1), 0, Object.class,
+				boolean.class);
+		for (int i = validations.size() - 1; i >= 0; i--) {
+			MethodHandle test = test(validations.get(i));
+			if (null == test) {
+				return null;
+			}
+			MethodHandle fail = MethodHandles.dropArguments(MethodHandles.constant(int.class, i), 0, Object.class,
+					boolean.class);
+			handle = MethodHandles.guardWithTest(test, handle, fail);
+		}
+		return handle;
+	}
+
+	/**
+	 * バリデーションのチェックを <code>(Object, boolean)boolean</code> 型のハンドルで取得する。
+	 * 
+	 * @param validation バリデーション
+	 * @return ハンドル。組み込みバリデーションでない場合、<code>null</code>
+	 */
+	private static MethodHandle test(final Validation validation) {
+		MethodHandle h = null;
+		if (validation instanceof RequiredValidation) {
+			return MethodHandles.dropArguments(REQUIRED, 0, Object.class);
+		} else if (validation instanceof NotNullValidation) {
+			h = NOT_NULL;
+		} else if (validation instanceof NotEmptyValidation) {
+			h = NOT_EMPTY;
+		} else if (validation instanceof MaximumValidation || validation instanceof MinimumValidation
+				|| validation instanceof RangeValidation) {
+			h = MethodHandles.insertArguments(NUMBER, 0, validation);
+		} else if (validation instanceof PatternValidation) {
+			Pattern pattern = ((PatternValidation) validation).getCompiledPattern();
+			h = MethodHandles.insertArguments(PATTERN, 0, pattern);
+		}
+		return (null == h) ? null : MethodHandles.dropArguments(h, 1, boolean.class);
+	}
+
+	static boolean required(final boolean present) {
+		return present;
+	}
+
+	static boolean notNull(final Object value) {
+		return null != value;
+	}
+
+	static boolean notEmpty(final Object value) {
+		if (value instanceof String) {
+			return 0 != ((String) value).length();
+		} else if (value instanceof List<?>) {
+			return !((List<?>) value).isEmpty();
+		} else if (value instanceof Map<?, ?>) {
+			return !((Map<?, ?>) value).isEmpty();
+		}
+		return true;
+	}
+
+	/**
+	 * 数値のチェックを行う。
+	 * <p>
+	 * 逐次評価と同じ境界値の比較を行う為、値の型に応じた {@link NumericValidation} のメソッドを呼び出す。
+	 * </p>
+	 * 
+	 * @param validation バリデーション
+	 * @param value 値
+	 * @return 成功した場合、<code>true</code>
+	 */
+	static boolean number(final NumericValidation validation, final Object value) {
+		if (null == value) {
+			return true;
+		} else if (value instanceof Double || value instanceof Float) {
+			return validation.isValid(((Number) value).doubleValue());
+		} else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return validation.isValid(((Number) value).longValue());
+		} else if (value instanceof BigDecimal) {
+			return validation.isValid((BigDecimal) value);
+		} else if (value instanceof BigInteger) {
+			return validation.isValid(new BigDecimal((BigInteger) value));
+		} else if (value instanceof Number) {
+			return validation.isValid(((Number) value).doubleValue());
+		}
+		return false;
+	}
+
+	static boolean pattern(final Pattern pattern, final Object value) {
+		return null == value || (value instanceof String && pattern.matcher((String) value).matches());
+	}
+}
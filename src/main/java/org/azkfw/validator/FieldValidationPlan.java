@@ -0,0 +1,287 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.azkfw.validator.annotation.OrderIndependent;
+import org.azkfw.validator.validation.NumericValidation;
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このクラスは、フィールド単位のバリデーション計画を保持するクラスです。
+ *
+ * <p>
+ * 名前の解決、バリデーションの生成と並び替え、型のモデルの解決はすべて計画の構築時に行われます。
+ * POJOのフィールド値を取得する {@link MethodHandle} も構築時に生成されます。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class FieldValidationPlan {
+
+	/** フィールド */
+	private final Field field;
+
+	/** 名前(JSONプロパティ名) */
+	private final String name;
+
+	/** ラベル */
+	private final String label;
+
+	/** バリデーション一覧(実行順) */
+	private final Validation[] validations;
+
+	/** フィールド型 */
+	private final Class<?> type;
+
+	/** 型のモデル */
+	private final TypeModel model;
+
+	/** ユーザ定義バリデーションの有無 */
+	private final boolean custom;
+
+	/** 合成したバリデーション */
+	private final MethodHandle compiled;
+
+	/** フィールド値の取得 <code>(Object)Object</code> */
+	private final MethodHandle getter;
+
+	/** 数値フィールド値の取得 <code>(Object)long</code> または <code>(Object)double</code> */
+	private final MethodHandle numericGetter;
+
+	/** 整数フィールドの有無 */
+	private final boolean integral;
+
+	/** すべてのバリデーションが {@link NumericValidation} の場合、<code>true</code> */
+	private final boolean numeric;
+
+	/** 実行順の学習。{@link OrderIndependent} でない場合、<code>null</code> */
+	private final AdaptiveRuleOrder adaptiveOrder;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param field フィールド
+	 * @param name 名前
+	 * @param label ラベル
+	 * @param validations バリデーション一覧(実行順)
+	 * @param model 型のモデル
+	 * @param custom ユーザ定義バリデーションの有無
+	 */
+	FieldValidationPlan(final Field field, final String name, final String label, final List<Validation> validations,
+			final TypeModel model, final boolean custom) {
+		this.field = field;
+		this.name = name;
+		this.label = label;
+		this.validations = validations.toArray(new Validation[validations.size()]);
+		this.type = field.getType();
+		this.model = model;
+		this.custom = custom;
+		this.compiled = custom ? null : FieldValidationCompiler.compile(validations);
+		this.numeric = isNumeric(this.validations);
+		this.adaptiveOrder = (1 < this.validations.length && field.isAnnotationPresent(OrderIndependent.class)) ? new AdaptiveRuleOrder(
+				this.validations) : null;
+		this.integral = (long.class == type || int.class == type || short.class == type || byte.class == type);
+
+		MethodHandle getter = null;
+		MethodHandle numericGetter = null;
+		if (!Modifier.isStatic(field.getModifiers())) {
+			try {
+				field.setAccessible(true);
+				MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+				getter = handle.asType(MethodType.methodType(Object.class, Object.class));
+				if (numeric && type.isPrimitive() && boolean.class != type && char.class != type) {
+					numericGetter = handle.asType(MethodType.methodType(integral ? long.class : double.class,
+							Object.class));
+				}
+			} catch (IllegalAccessException ex) {
+				getter = null;
+			} catch (RuntimeException ex) {
+				// SecurityException、モジュール境界の InaccessibleObjectException
+				getter = null;
+			}
+		}
+		this.getter = getter;
+		this.numericGetter = numericGetter;
+	}
+
+	/**
+	 * 数値をボクシングせずにチェックできるバリデーション一覧か判断する。
+	 * 
+	 * @param validations バリデーション一覧
+	 * @return 数値のままチェックできる場合、<code>true</code>
+	 */
+	private static boolean isNumeric(final Validation[] validations) {
+		if (0 == validations.length) {
+			return false;
+		}
+		for (Validation validation : validations) {
+			if (!(validation instanceof NumericValidation)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * フィールドを取得する。
+	 *
+	 * @return フィールド
+	 */
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * 名前(JSONプロパティ名)を取得する。
+	 *
+	 * @return 名前
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * ラベルを取得する。
+	 *
+	 * @return ラベル
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * バリデーション一覧を実行順で取得する。
+	 *
+	 * @return バリデーション一覧
+	 */
+	public List<Validation> getValidations() {
+		return Collections.unmodifiableList(Arrays.asList(validations));
+	}
+
+	/**
+	 * フィールド型を取得する。
+	 *
+	 * @return フィールド型
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * 型のモデルを取得する。
+	 *
+	 * @return 型のモデル
+	 */
+	public TypeModel getModel() {
+		return model;
+	}
+
+	/**
+	 * リストの要素型を取得する。
+	 *
+	 * @return 要素型。リストでない場合、<code>null</code>
+	 */
+	public Class<?> getElementType() {
+		return (TypeModel.Kind.LIST == model.getKind()) ? model.getElement().getType() : null;
+	}
+
+	/**
+	 * ユーザ定義バリデーションを持つか判断する。
+	 *
+	 * @return ユーザ定義バリデーションを持つ場合、<code>true</code>
+	 */
+	public boolean isCustom() {
+		return custom;
+	}
+
+	/**
+	 * 合成したバリデーションを取得する。
+	 *
+	 * @return 合成したバリデーション。合成できない場合、<code>null</code>
+	 * @see FieldValidationCompiler
+	 */
+	MethodHandle compiled() {
+		return compiled;
+	}
+
+	/**
+	 * フィールド値の取得を取得する。
+	 * 
+	 * @return <code>(Object)Object</code> のハンドル。static フィールドまたはアクセスできない場合、<code>null</code>
+	 */
+	MethodHandle getter() {
+		return getter;
+	}
+
+	/**
+	 * 数値フィールド値の取得を取得する。
+	 * 
+	 * @return {@link #isIntegral()} の場合、<code>(Object)long</code>、それ以外の場合、<code>(Object)double</code>
+	 *         のハンドル。ボクシングせずにチェックできない場合、<code>null</code>
+	 */
+	MethodHandle numericGetter() {
+		return numericGetter;
+	}
+
+	/**
+	 * 整数型のフィールドか判断する。
+	 * 
+	 * @return <code>long</code>/<code>int</code>/<code>short</code>/<code>byte</code> の場合、<code>true</code>
+	 */
+	boolean isIntegral() {
+		return integral;
+	}
+
+	/**
+	 * 数値をボクシングせずにチェックできるか判断する。
+	 * 
+	 * @return すべてのバリデーションが {@link NumericValidation} の場合、<code>true</code>
+	 */
+	boolean isNumeric() {
+		return numeric;
+	}
+
+	/**
+	 * 実行順の学習を取得する。
+	 * 
+	 * @return 実行順の学習。{@link OrderIndependent} でない、またはバリデーションが一つ以下の場合、<code>null</code>
+	 */
+	AdaptiveRuleOrder adaptiveOrder() {
+		return adaptiveOrder;
+	}
+
+	/**
+	 * バリデーション配列を取得する。
+	 *
+	 * @return バリデーション配列
+	 */
+	Validation[] validations() {
+		return validations;
+	}
+}
@@ -0,0 +1,320 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.codehaus.jackson.JsonParser;
+
+/**
+ * このクラスは、JSONファイルをメモリマップしてバリデーションするクラスです。
+ * 
+ * <p>
+ * ファイルはチャンク毎にメモリマップされ、{@link Validator} のストリーミングバリデーションで読み込まれます。
+ * ヒープの使用量はファイルサイズに依存しません。 エラーには {@link ValidationResult#getOffset()} でファイル中のバイト位置が設定されます。
+ * </p>
+ * 
+ * <p>
+ * 並列バリデーションを有効にした場合、トップレベルの配列を要素の境界で分割し、 {@link Validator} のプールで並列にバリデーションします。
+ * 境界は文字列とネストを追跡するバイト単位の走査で求め、結果はインデックス順に結合されます。
+ * トップレベルが配列でない場合は逐次バリデーションします。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class FileValidator {
+
+	/** デフォルトのチャンクサイズ */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+	/** 境界の走査で使用するバッファサイズ */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/** 配列の開始 */
+	private static final byte[] OPEN = new byte[] { '[' };
+
+	/** 配列の終了 */
+	private static final byte[] CLOSE = new byte[] { ']' };
+
+	private final Validator validator;
+
+	/** チャンクサイズ */
+	private int chunkSize;
+
+	/** 並列バリデーション */
+	private boolean parallel;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param validator バリデータ
+	 */
+	public FileValidator(final Validator validator) {
+		this.validator = validator;
+		this.chunkSize = DEFAULT_CHUNK_SIZE;
+		this.parallel = false;
+	}
+
+	/**
+	 * 一度にメモリマップするサイズを設定する。
+	 * 
+	 * @param chunkSize チャンクサイズ(バイト)
+	 */
+	public void setChunkSize(final int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * トップレベルの配列を分割して並列にバリデーションするか設定する。
+	 * 
+	 * @param parallel 並列にバリデーションする場合、<code>true</code>
+	 */
+	public void setParallel(final boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * UTF-8のJSONファイルをバリデーションする。
+	 * 
+	 * @param file ファイル
+	 * @param clazz バリデーションクラス(トップレベルが配列の場合は要素のクラス)
+	 * @return バリデーション結果
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	public List<ValidationResult> validate(final File file, final Class<?> clazz) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (parallel) {
+				int parallelism = validator.getForkJoinPool().getParallelism();
+				List<Range> ranges = split(channel, size, Math.max(1, size / (parallelism * 4)));
+				if (null != ranges && 1 < ranges.size()) {
+					return validateParallel(channel, ranges, clazz);
+				}
+			}
+			return validator.validate(new MappedInputStream(channel, 0, size, chunkSize), clazz);
+		} catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * 分割した範囲を並列にバリデーションする。
+	 * 
+	 * @param channel ファイルチャネル
+	 * @param ranges 範囲一覧
+	 * @param clazz 要素のバリデーションクラス
+	 * @return バリデーション結果
+	 */
+	private List<ValidationResult> validateParallel(final FileChannel channel, final List<Range> ranges,
+			final Class<?> clazz) throws IOException {
+		final long start = validator.startTimer();
+		final AtomicInteger stopIndex = new AtomicInteger(Integer.MAX_VALUE);
+
+		List<Callable<List<ValidationResult>>> tasks = new ArrayList<Callable<List<ValidationResult>>>(ranges.size());
+		for (int i = 0; i < ranges.size(); i++) {
+			final int index = i;
+			final Range range = ranges.get(i);
+			tasks.add(new Callable<List<ValidationResult>>() {
+				@Override
+				public List<ValidationResult> call() throws IOException {
+					ValidationResultCollector collector = validator.createCollector();
+					if (index <= stopIndex.get()) {
+						validateRange(channel, range, clazz, collector);
+						if (collector.isStopped()) {
+							int current = stopIndex.get();
+							while (index < current && !stopIndex.compareAndSet(current, index)) {
+								current = stopIndex.get();
+							}
+						}
+					}
+					return collector.getResults();
+				}
+			});
+		}
+
+		ValidationResultCollector collector = validator.createCollector();
+		try {
+			for (Future<List<ValidationResult>> future : validator.getForkJoinPool().invokeAll(tasks)) {
+				for (ValidationResult result : future.get()) {
+					if (!collector.add(result)) {
+						return validator.complete(clazz, start, collector);
+					}
+				}
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+		return validator.complete(clazz, start, collector);
+	}
+
+	/**
+	 * 範囲の要素をバリデーションする。
+	 * <p>
+	 * 範囲を <code>[</code> と <code>]</code> で囲んだ配列として読み込み、バイト位置をファイル中の位置に補正する。
+	 * </p>
+	 * 
+	 * @param channel ファイルチャネル
+	 * @param range 範囲
+	 * @param clazz 要素のバリデーションクラス
+	 * @param collector エラー収集
+	 */
+	private void validateRange(final FileChannel channel, final Range range, final Class<?> clazz,
+			final ValidationResultCollector collector) throws IOException {
+		InputStream stream = new SequenceInputStream(new SequenceInputStream(new ByteArrayInputStream(OPEN),
+				new MappedInputStream(channel, range.start, range.end, chunkSize)), new ByteArrayInputStream(CLOSE));
+		JsonParser parser = validator.getJsonFactory().createJsonParser(stream);
+		try {
+			validator.validateElements(parser, clazz, range.firstIndex, collector);
+		} finally {
+			parser.close();
+		}
+
+		for (ValidationResult result : collector.getResults()) {
+			if (-1 != result.getOffset()) {
+				result.setOffset(range.start - OPEN.length + result.getOffset());
+			}
+		}
+	}
+
+	/**
+	 * トップレベルの配列を要素の境界で分割する。
+	 * 
+	 * @param channel ファイルチャネル
+	 * @param size ファイルサイズ
+	 * @param target 範囲の目安のサイズ
+	 * @return 範囲一覧。トップレベルが配列でない、または配列が閉じていない場合、<code>null</code>
+	 */
+	private List<Range> split(final FileChannel channel, final long size, final long target) throws IOException {
+		List<Range> ranges = new ArrayList<Range>();
+		InputStream stream = new MappedInputStream(channel, 0, size, chunkSize);
+		try {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			boolean string = false;
+			boolean escape = false;
+			int depth = 0;
+			int index = 0;
+			int firstIndex = 0;
+			long start = -1;
+			long position = 0;
+			for (int length = stream.read(buffer); -1 != length; length = stream.read(buffer)) {
+				for (int i = 0; i < length; i++) {
+					byte b = buffer[i];
+					if (string) {
+						if (escape) {
+							escape = false;
+						} else if ('\\' == b) {
+							escape = true;
+						} else if ('"' == b) {
+							string = false;
+						}
+						continue;
+					}
+
+					switch (b) {
+					case '"':
+						string = true;
+						break;
+					case '[':
+					case '{':
+						if (0 == depth) {
+							if ('[' != b) {
+								return null;
+							}
+							start = position + i + 1;
+						}
+						depth++;
+						break;
+					case ']':
+					case '}':
+						depth--;
+						if (0 == depth) {
+							ranges.add(new Range(start, position + i, firstIndex));
+							return ranges;
+						}
+						break;
+					case ',':
+						if (1 == depth) {
+							index++;
+							if (position + i - start >= target) {
+								ranges.add(new Range(start, position + i, firstIndex));
+								start = position + i + 1;
+								firstIndex = index;
+							}
+						}
+						break;
+					default:
+						if (0 == depth && ' ' != b && '\t' != b && '\r' != b && '\n' != b) {
+							return null;
+						}
+						break;
+					}
+				}
+				position += length;
+			}
+		} finally {
+			stream.close();
+		}
+		return null;
+	}
+
+	/**
+	 * このクラスは、分割した配列の範囲を保持するクラスです。
+	 */
+	private static final class Range {
+
+		/** 開始位置 */
+		private final long start;
+
+		/** 終了位置(含まない) */
+		private final long end;
+
+		/** 先頭要素のインデックス */
+		private final int firstIndex;
+
+		private Range(final long start, final long end, final int firstIndex) {
+			this.start = start;
+			this.end = end;
+			this.firstIndex = firstIndex;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.azkfw.validator.validation.ValidationPath;
+
+/**
+ * このクラスは、リストの要素を分割して並列にバリデーションするタスクです。
+ * 
+ * <p>
+ * 各タスクは担当範囲のエラーを個別に収集し、結合時にインデックス順に並べて最大エラー数で切り詰めます。
+ * いずれかの範囲で最大エラー数に達した場合、その位置より後ろの要素は結果に影響しないため、 他のタスクはその位置を越えた時点で処理を打ち切ります。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+final class ListValidationTask extends RecursiveTask<List<ValidationResult>> {
+
+	/** serialVersionUID */
+	private static final long serialVersionUID = 8617402296387471504L;
+
+	private final Validator validator;
+	private final List<?> data;
+	private final TypeModel element;
+	private final ValidationPath path;
+
+	/** 呼び出し元でバリデーション中のPOJO */
+	private final List<Object> beans;
+
+	/** 開始位置(含む) */
+	private final int from;
+	/** 終了位置(含まない) */
+	private final int to;
+	/** 分割しない要素数 */
+	private final int leafSize;
+	/** 最大エラー数 */
+	private final int maxErrors;
+
+	/** 最大エラー数に達した最小の位置 */
+	private final AtomicInteger stopIndex;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param validator バリデータ
+	 * @param data リスト
+	 * @param element 要素の型のモデル
+	 * @param path パス
+	 * @param beans 呼び出し元でバリデーション中のPOJO
+	 * @param leafSize 分割しない要素数
+	 * @param maxErrors 最大エラー数
+	 */
+	ListValidationTask(final Validator validator, final List<?> data, final TypeModel element, final ValidationPath path,
+			final List<Object> beans, final int leafSize, final int maxErrors) {
+		this(validator, data, element, path, beans, 0, data.size(), leafSize, maxErrors, new AtomicInteger(
+				Integer.MAX_VALUE));
+	}
+
+	private ListValidationTask(final Validator validator, final List<?> data, final TypeModel element,
+			final ValidationPath path, final List<Object> beans, final int from, final int to, final int leafSize,
+			final int maxErrors, final AtomicInteger stopIndex) {
+		this.validator = validator;
+		this.data = data;
+		this.element = element;
+		this.path = path;
+		this.beans = beans;
+		this.from = from;
+		this.to = to;
+		this.leafSize = leafSize;
+		this.maxErrors = maxErrors;
+		this.stopIndex = stopIndex;
+	}
+
+	@Override
+	protected List<ValidationResult> compute() {
+		if (to - from <= leafSize) {
+			return computeDirectly();
+		}
+
+		int middle = (from + to) >>> 1;
+		ListValidationTask left = new ListValidationTask(validator, data, element, path, beans, from, middle, leafSize,
+				maxErrors, stopIndex);
+		ListValidationTask right = new ListValidationTask(validator, data, element, path, beans, middle, to, leafSize,
+				maxErrors, stopIndex);
+		right.fork();
+		List<ValidationResult> leftResults = left.compute();
+		List<ValidationResult> rightResults = right.join();
+
+		if (leftResults.size() >= maxErrors || rightResults.isEmpty()) {
+			return leftResults;
+		}
+		List<ValidationResult> results = new ArrayList<ValidationResult>(Math.min(maxErrors, leftResults.size()
+				+ rightResults.size()));
+		results.addAll(leftResults);
+		for (ValidationResult result : rightResults) {
+			if (results.size() >= maxErrors) {
+				break;
+			}
+			results.add(result);
+		}
+		return results;
+	}
+
+	private List<ValidationResult> computeDirectly() {
+		ValidationResultCollector collector = new ValidationResultCollector(ValidationMode.COLLECT_ALL, maxErrors);
+		collector.enterAll(beans);
+		ValidationPath path = this.path.copy();
+		try {
+			for (int i = from; i < to && i <= stopIndex.get(); i++) {
+				Object value = data.get(i);
+				if (null != value) {
+					path.push(i);
+					validator.checkValue(value, element, path, collector);
+					path.pop();
+				}
+
+				if (collector.isStopped()) {
+					int current = stopIndex.get();
+					while (i < current && !stopIndex.compareAndSet(current, i)) {
+						current = stopIndex.get();
+					}
+					break;
+				}
+			}
+		} catch (RuntimeException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+		return collector.getResults();
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * このクラスは、ファイルの範囲をメモリマップして読み込む入力ストリームクラスです。
+ *
+ * <p>
+ * 範囲は指定サイズのチャンク毎に順にマップされる為、2GBを超えるファイルも読み込めます。 ヒープには読み込み先のバッファ以外を確保しません。
+ * チャネルは呼び出し元が閉じてください。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+final class MappedInputStream extends InputStream {
+
+	private final FileChannel channel;
+
+	/** 終了位置(含まない) */
+	private final long end;
+
+	/** チャンクサイズ */
+	private final int chunkSize;
+
+	/** 次にマップする位置 */
+	private long position;
+
+	/** マップ中のチャンク */
+	private MappedByteBuffer buffer;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param channel ファイルチャネル
+	 * @param start 開始位置
+	 * @param end 終了位置(含まない)
+	 * @param chunkSize チャンクサイズ
+	 */
+	MappedInputStream(final FileChannel channel, final long start, final long end, final int chunkSize) {
+		this.channel = channel;
+		this.end = end;
+		this.chunkSize = chunkSize;
+		this.position = start;
+		this.buffer = null;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensure()) {
+			return -1;
+		}
+		return buffer.get() & 0xff;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException {
+		if (0 == len) {
+			return 0;
+		}
+		if (!ensure()) {
+			return -1;
+		}
+		int length = Math.min(len, buffer.remaining());
+		buffer.get(b, off, length);
+		return length;
+	}
+
+	@Override
+	public int available() {
+		return (null == buffer) ? 0 : buffer.remaining();
+	}
+
+	@Override
+	public void close() {
+		buffer = null;
+		position = end;
+	}
+
+	/**
+	 * 読み込めるチャンクを用意する。
+	 *
+	 * @return 読み込める場合、<code>true</code>
+	 */
+	private boolean ensure() throws IOException {
+		if (null != buffer && buffer.hasRemaining()) {
+			return true;
+		}
+		if (position >= end) {
+			buffer = null;
+			return false;
+		}
+		long length = Math.min(chunkSize, end - position);
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		position += length;
+		return true;
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+/**
+ * このインターフェースは、バッチバリデーションのレコード毎の結果を受け取る為のインターフェースです。
+ * 
+ * <p>
+ * 結果はレコード番号の順に、バリデーションを呼び出したスレッドから通知されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public interface RecordValidationListener {
+
+	/**
+	 * レコードのバリデーション結果を受け取る。
+	 * 
+	 * @param result バリデーション結果
+	 */
+	public void onRecord(final RecordValidationResult result);
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.List;
+
+/**
+ * このクラスは、バッチバリデーションおよびストリームバリデーションにおける1レコードのバリデーション結果を格納するクラスです。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class RecordValidationResult {
+
+	/** レコード番号 */
+	private final long index;
+
+	/** バリデーション結果 */
+	private final List<ValidationResult> results;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param index レコード番号(0始まり)
+	 * @param results バリデーション結果
+	 */
+	public RecordValidationResult(final long index, final List<ValidationResult> results) {
+		this.index = index;
+		this.results = results;
+	}
+
+	/**
+	 * レコード番号を取得する。
+	 * 
+	 * @return レコード番号(0始まり)
+	 */
+	public long getIndex() {
+		return index;
+	}
+
+	/**
+	 * レコードが正しいか判断する。
+	 * 
+	 * @return エラーがない場合、<code>true</code>
+	 */
+	public boolean isValid() {
+		return results.isEmpty();
+	}
+
+	/**
+	 * バリデーション結果を取得する。
+	 * 
+	 * @return バリデーション結果
+	 */
+	public List<ValidationResult> getResults() {
+		return results;
+	}
+}
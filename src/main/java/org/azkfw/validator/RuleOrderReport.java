@@ -0,0 +1,212 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このクラスは、学習したバリデーションの実行順を保持するクラスです。
+ * 
+ * <p>
+ * {@link Validator#getRuleOrderReport()} で取得します。 {@link org.azkfw.validator.annotation.OrderIndependent}
+ * が付与された構築済みのフィールド毎に、学習した実行順とバリデーション毎のサンプリング結果を保持します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class RuleOrderReport {
+
+	/**
+	 * このクラスは、バリデーションのサンプリング結果を保持するクラスです。
+	 */
+	public static final class Rule {
+
+		private final Validation validation;
+
+		private final int declaredIndex;
+
+		private final long samples;
+
+		private final long failures;
+
+		private final long nanos;
+
+		private Rule(final Validation validation, final int declaredIndex, final long samples, final long failures,
+				final long nanos) {
+			this.validation = validation;
+			this.declaredIndex = declaredIndex;
+			this.samples = samples;
+			this.failures = failures;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * バリデーションを取得する。
+		 * 
+		 * @return バリデーション
+		 */
+		public Validation getValidation() {
+			return validation;
+		}
+
+		/**
+		 * 宣言順の位置を取得する。
+		 * 
+		 * @return 位置
+		 */
+		public int getDeclaredIndex() {
+			return declaredIndex;
+		}
+
+		/**
+		 * 失敗率を取得する。
+		 * 
+		 * @return 失敗率。サンプリングしていない場合、<code>0</code>
+		 */
+		public double getFailureRate() {
+			return (0 < samples) ? (double) failures / samples : 0.0;
+		}
+
+		/**
+		 * 平均時間を取得する。
+		 * 
+		 * @return 時間(ナノ秒)。サンプリングしていない場合、<code>0</code>
+		 */
+		public double getMeanNanos() {
+			return (0 < samples) ? (double) nanos / samples : 0.0;
+		}
+	}
+
+	/**
+	 * このクラスは、フィールドの学習した実行順を保持するクラスです。
+	 */
+	public static final class FieldOrder {
+
+		private final Class<?> type;
+
+		private final String name;
+
+		private final long samples;
+
+		private final List<Rule> rules;
+
+		private FieldOrder(final Class<?> type, final String name, final long samples, final List<Rule> rules) {
+			this.type = type;
+			this.name = name;
+			this.samples = samples;
+			this.rules = Collections.unmodifiableList(rules);
+		}
+
+		/**
+		 * クラスを取得する。
+		 * 
+		 * @return クラス
+		 */
+		public Class<?> getType() {
+			return type;
+		}
+
+		/**
+		 * 名前(JSONプロパティ名)を取得する。
+		 * 
+		 * @return 名前
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * サンプリング数を取得する。
+		 * 
+		 * @return サンプリング数
+		 */
+		public long getSamples() {
+			return samples;
+		}
+
+		/**
+		 * バリデーションを学習した実行順で取得する。
+		 * 
+		 * @return バリデーション一覧
+		 */
+		public List<Rule> getRules() {
+			return rules;
+		}
+	}
+
+	/** フィールド一覧 */
+	private final List<FieldOrder> fields;
+
+	/**
+	 * コンストラクタ
+	 */
+	RuleOrderReport() {
+		fields = new ArrayList<FieldOrder>();
+	}
+
+	/**
+	 * フィールドの実行順を追加する。
+	 * 
+	 * @param type クラス
+	 * @param field フィールド計画
+	 */
+	void add(final Class<?> type, final FieldValidationPlan field) {
+		AdaptiveRuleOrder order = field.adaptiveOrder();
+		Validation[] declared = order.declared();
+		long samples = order.getSamples();
+
+		List<Rule> rules = new ArrayList<Rule>();
+		for (Validation validation : order.validations()) {
+			for (int i = 0; i < declared.length; i++) {
+				if (declared[i] == validation) {
+					rules.add(new Rule(validation, i, samples, order.getFailures(i), order.getNanos(i)));
+				}
+			}
+		}
+		fields.add(new FieldOrder(type, field.getName(), samples, rules));
+	}
+
+	/**
+	 * フィールド一覧を取得する。
+	 * 
+	 * @return フィールド一覧
+	 */
+	public List<FieldOrder> getFields() {
+		return Collections.unmodifiableList(fields);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (FieldOrder field : fields) {
+			s.append(String.format("%s#%s (%d samples)%n", field.getType().getName(), field.getName(),
+					field.getSamples()));
+			for (Rule rule : field.getRules()) {
+				s.append(String.format("  [%d] %-40s fail %6.2f%%  %10.1f ns%n", rule.getDeclaredIndex(), rule
+						.getValidation().getClass().getSimpleName(), rule.getFailureRate() * 100, rule.getMeanNanos()));
+			}
+		}
+		return s.toString();
+	}
+}
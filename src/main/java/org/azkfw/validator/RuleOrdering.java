@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+/**
+ * この列挙型は、フィールドのバリデーションの実行順を決定する方式を定義します。
+ * 
+ * <p>
+ * 実行順の学習は {@link org.azkfw.validator.annotation.OrderIndependent} が付与されたフィールドのみが対象です。
+ * フィールドのバリデーションは最初の失敗で終了する為、 失敗しやすく軽いバリデーションを先に実行することで処理を削減します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public enum RuleOrdering {
+
+	/** 実行順(<code>order</code>)の通りに実行する */
+	DECLARED,
+
+	/**
+	 * サンプリングした呼び出しで計測したコストと失敗率から実行順を決定する。
+	 * <p>
+	 * コスト/失敗率の小さい順に実行する。
+	 * </p>
+	 */
+	ADAPTIVE,
+
+	/**
+	 * サンプリングした呼び出しの失敗率のみから実行順を決定する。
+	 * <p>
+	 * 時間を計測せず、サンプリングも呼び出し回数で決める為、同じ入力に対して常に同じ実行順となる。 テストで使用する。
+	 * </p>
+	 */
+	DETERMINISTIC
+}
@@ -0,0 +1,535 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.azkfw.validator.validation.ValidationPath;
+import org.codehaus.jackson.JsonLocation;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+/**
+ * このクラスは、{@link JsonParser} のトークンから直接バリデーションを行うクラスです。
+ *
+ * <p>
+ * ドキュメント全体のツリーを構築せずにトークンをバリデーション計画と突き合わせ、
+ * バリデーション対象外のサブツリーは {@link JsonParser#skipChildren()} で読み飛ばします。
+ * 使用するメモリはドキュメントのサイズではなくネストの深さに比例します。
+ * エラーはオブジェクト毎に保持してフィールドの宣言順に選ぶ為、最大エラー数や {@link ValidationMode#FAIL_FAST}
+ * で返すエラーはツリーのバリデーションと一致します。
+ * </p>
+ *
+ * <p>
+ * ユーザ定義バリデーションを持つフィールドの値がオブジェクトまたは配列の場合のみ、
+ * そのサブツリーを {@link Map}/{@link List} として構築してバリデーションを行います。
+ * </p>
+ *
+ * <p>
+ * エラーには検出時点の入力中の位置が設定されます。 位置は失敗した場合にのみ取得します。
+ * すべてのバリデーションが {@link org.azkfw.validator.validation.NumericValidation} のフィールドの数値は、
+ * トークンから直接ボクシングせずにバリデーションします。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+final class StreamValidator {
+
+	/** 空でない配列を表す値 */
+	private static final List<Object> NON_EMPTY_LIST = Collections.singletonList(null);
+
+	/** 空でないオブジェクトを表す値 */
+	private static final Map<String, Object> NON_EMPTY_MAP = Collections.singletonMap(null, null);
+
+	/** <code>double</code> で十進表記を保持できる有効桁数 */
+	private static final int MAX_DOUBLE_DIGITS = 15;
+
+	/** <code>double</code> でオーバーフロー、アンダーフローせずに扱う指数の上限 */
+	private static final int MAX_DOUBLE_EXPONENT = 290;
+
+	private final Validator validator;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param validator バリデータ
+	 */
+	StreamValidator(final Validator validator) {
+		this.validator = validator;
+	}
+
+	/**
+	 * バリデーションを行う。
+	 *
+	 * @param parser パーサ
+	 * @param clazz バリデーションクラス
+	 * @param collector エラー収集
+	 */
+	public void validate(final JsonParser parser, final Class<?> clazz, final ValidationResultCollector collector)
+			throws Exception {
+		JsonToken token = parser.nextToken();
+		if (null == token) {
+			throw new JsonParseException("Unexpected end-of-input: no content", parser.getCurrentLocation());
+		}
+		if (JsonToken.START_OBJECT == token) {
+			checkObject(parser, parser.nextToken(), validator.getPlan(clazz), new ValidationPath(), collector);
+		} else if (JsonToken.START_ARRAY == token) {
+			checkList(parser, parser.nextToken(), TypeModel.object(clazz), new ValidationPath(), 0, collector);
+		}
+	}
+
+	/**
+	 * 配列の要素のバリデーションを行う。
+	 * <p>
+	 * 分割された配列の一部を検証する為に使用する。 パスのインデックスは開始インデックスから数える。
+	 * </p>
+	 *
+	 * @param parser パーサ
+	 * @param clazz 要素のバリデーションクラス
+	 * @param firstIndex 開始インデックス
+	 * @param collector エラー収集
+	 */
+	void validateElements(final JsonParser parser, final Class<?> clazz, final int firstIndex,
+			final ValidationResultCollector collector) throws Exception {
+		if (JsonToken.START_ARRAY == parser.nextToken()) {
+			checkList(parser, parser.nextToken(), TypeModel.object(clazz), new ValidationPath(), firstIndex,
+					collector);
+		}
+	}
+
+	/**
+	 * オブジェクトのバリデーションを行う。
+	 * <p>
+	 * フィールドはドキュメントの順に検証し、存在しないフィールドは最後に検証する。
+	 * エラーはオブジェクト毎に保持し、ツリーのバリデーションと同じくフィールドの宣言順に最大エラー数まで選んで追加する。
+	 * 宣言順で前のフィールドのエラーで最大エラー数に達している場合、後のフィールドは読み飛ばす。
+	 * </p>
+	 *
+	 * @param parser パーサ
+	 * @param first オブジェクト開始直後のトークン
+	 * @param plan バリデーション計画
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	private void checkObject(final JsonParser parser, final JsonToken first, final ClassValidationPlan plan,
+			final ValidationPath path, final ValidationResultCollector collector) throws Exception {
+		final long start = validator.startTimer();
+		final FieldValidationPlan[] fields = plan.fields();
+		final boolean[] present = new boolean[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			// エラーにならないフィールドは入力済みとして扱う
+			present[i] = !plan.isChecked(i);
+		}
+		final ValidationResultCollector buffer = new ValidationResultCollector(collector, present);
+
+		for (JsonToken token = first; JsonToken.FIELD_NAME == token; token = parser.nextToken()) {
+			final String name = parser.getCurrentName();
+			final JsonToken valueToken = parser.nextToken();
+
+			final int index = plan.indexOf(name);
+			if (-1 == index) {
+				parser.skipChildren();
+				continue;
+			}
+			present[index] = true;
+			buffer.setKey(index);
+			if (buffer.isStopped()) {
+				parser.skipChildren();
+				continue;
+			}
+			path.push(name);
+			checkField(parser, valueToken, fields[index], path, buffer);
+			path.pop();
+			if (buffer.isFinished()) {
+				buffer.flush();
+				validator.recordObject(plan.getType(), start);
+				return;
+			}
+		}
+
+		for (int i = 0; i < fields.length; i++) {
+			if (!present[i]) {
+				buffer.setKey(i);
+				if (buffer.isStopped()) {
+					break;
+				}
+				path.push(fields[i].getName());
+				checkField(parser, fields[i], null, false, path, buffer);
+				path.pop();
+			}
+		}
+		buffer.flush();
+		validator.recordObject(plan.getType(), start);
+	}
+
+	/**
+	 * フィールド値のバリデーションを行う。
+	 *
+	 * @param parser パーサ
+	 * @param token 値の先頭トークン
+	 * @param field フィールド計画
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	private void checkField(final JsonParser parser, final JsonToken token, final FieldValidationPlan field,
+			final ValidationPath path, final ValidationResultCollector collector) throws Exception {
+		if (JsonToken.START_OBJECT == token) {
+			if (field.isCustom()) {
+				Map<String, Object> value = readObject(parser);
+				int size = collector.size();
+				if (validator.checkField(field, value, true, path, collector)) {
+					validator.checkValue(value, field.getModel(), path, collector);
+				}
+				locate(parser, size, collector);
+			} else {
+				JsonToken next = parser.nextToken();
+				Map<String, Object> value = (JsonToken.END_OBJECT == next) ? Collections.<String, Object> emptyMap()
+						: NON_EMPTY_MAP;
+				if (checkField(parser, field, value, true, path, collector)) {
+					checkContent(parser, JsonToken.START_OBJECT, next, field.getModel(), path, collector);
+				} else if (JsonToken.END_OBJECT != next) {
+					skipRest(parser);
+				}
+			}
+		} else if (JsonToken.START_ARRAY == token) {
+			if (field.isCustom()) {
+				List<Object> value = readList(parser);
+				int size = collector.size();
+				if (validator.checkField(field, value, true, path, collector)) {
+					validator.checkValue(value, field.getModel(), path, collector);
+				}
+				locate(parser, size, collector);
+			} else {
+				JsonToken next = parser.nextToken();
+				List<Object> value = (JsonToken.END_ARRAY == next) ? Collections.emptyList() : NON_EMPTY_LIST;
+				if (checkField(parser, field, value, true, path, collector)) {
+					checkContent(parser, JsonToken.START_ARRAY, next, field.getModel(), path, collector);
+				} else if (JsonToken.END_ARRAY != next) {
+					skipRest(parser);
+				}
+			}
+		} else if (field.isNumeric() && (JsonToken.VALUE_NUMBER_INT == token || JsonToken.VALUE_NUMBER_FLOAT == token)) {
+			checkNumber(parser, token, field, path, collector);
+		} else {
+			checkField(parser, field, readScalar(parser, token), true, path, collector);
+		}
+	}
+
+	/**
+	 * 数値をボクシングせずにバリデーションし、エラーに入力中の位置を設定する。
+	 * <p>
+	 * <code>long</code> に収まる整数は <code>long</code>、有効桁数が <code>double</code> の精度を超える小数と
+	 * <code>long</code> に収まらない整数は {@link BigDecimal}、それ以外は <code>double</code> としてバリデーションする。
+	 * </p>
+	 *
+	 * @param parser パーサ
+	 * @param token トークン
+	 * @param field フィールド計画
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	private void checkNumber(final JsonParser parser, final JsonToken token, final FieldValidationPlan field,
+			final ValidationPath path, final ValidationResultCollector collector) throws IOException {
+		int size = collector.size();
+		if (JsonToken.VALUE_NUMBER_INT == token) {
+			if (JsonParser.NumberType.BIG_INTEGER == parser.getNumberType()) {
+				validator.checkNumber(field, new BigDecimal(parser.getBigIntegerValue()), path, collector);
+			} else {
+				validator.checkNumber(field, parser.getLongValue(), path, collector);
+			}
+		} else if (isDecimal(parser)) {
+			validator.checkNumber(field, parser.getDecimalValue(), path, collector);
+		} else {
+			validator.checkNumber(field, parser.getDoubleValue(), path, collector);
+		}
+		locate(parser, size, collector);
+	}
+
+	/**
+	 * 小数のリテラルが <code>double</code> で表現できないか判断する。
+	 *
+	 * @param parser パーサ
+	 * @return 有効桁数が15桁を超える、または指数が <code>double</code> の範囲に近い場合、<code>true</code>
+	 */
+	private static boolean isDecimal(final JsonParser parser) throws IOException {
+		final char[] chars = parser.getTextCharacters();
+		final int end = parser.getTextOffset() + parser.getTextLength();
+		int digits = 0;
+		boolean leading = true;
+		for (int i = parser.getTextOffset(); i < end; i++) {
+			char c = chars[i];
+			if ('e' == c || 'E' == c) {
+				int exponent = 0;
+				for (int j = i + 1; j < end && exponent < MAX_DOUBLE_EXPONENT; j++) {
+					if ('0' <= chars[j] && chars[j] <= '9') {
+						exponent = exponent * 10 + (chars[j] - '0');
+					}
+				}
+				return MAX_DOUBLE_EXPONENT <= exponent;
+			} else if ('0' <= c && c <= '9') {
+				if (leading && '0' == c) {
+					continue;
+				}
+				leading = false;
+				if (MAX_DOUBLE_DIGITS < ++digits) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * フィールドのバリデーションを行い、エラーに入力中の位置を設定する。
+	 *
+	 * @param parser パーサ
+	 * @param field フィールド計画
+	 * @param value 値
+	 * @param present 値が存在する場合、<code>true</code>
+	 * @param path パス
+	 * @param collector エラー収集
+	 * @return すべてのバリデーションに成功した場合、<code>true</code>
+	 */
+	private boolean checkField(final JsonParser parser, final FieldValidationPlan field, final Object value,
+			final boolean present, final ValidationPath path, final ValidationResultCollector collector) {
+		int size = collector.size();
+		if (validator.checkField(field, value, present, path, collector)) {
+			return true;
+		}
+		locate(parser, size, collector);
+		return false;
+	}
+
+	/**
+	 * 追加されたエラーに現在の入力中の位置を設定する。
+	 *
+	 * @param parser パーサ
+	 * @param from 対象とするエラーの開始位置
+	 * @param collector エラー収集
+	 */
+	private static void locate(final JsonParser parser, final int from, final ValidationResultCollector collector) {
+		if (from < collector.size()) {
+			collector.locate(from, offset(parser.getCurrentLocation()));
+		}
+	}
+
+	/**
+	 * コンテナの内容のバリデーションを型のモデルに従って行う。
+	 * <p>
+	 * コンテナ開始直後のトークンを読み込んだ状態で呼び出す。 モデルがコンテナと一致しない場合、内容を読み飛ばす。
+	 * </p>
+	 *
+	 * @param parser パーサ
+	 * @param start コンテナの開始トークン
+	 * @param first コンテナ開始直後のトークン
+	 * @param model 型のモデル
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	private void checkContent(final JsonParser parser, final JsonToken start, final JsonToken first,
+			final TypeModel model, final ValidationPath path, final ValidationResultCollector collector)
+			throws Exception {
+		if (JsonToken.START_OBJECT == start && TypeModel.Kind.OBJECT == model.getKind()) {
+			checkObject(parser, first, validator.getPlan(model.getType()), path, collector);
+		} else if (JsonToken.START_OBJECT == start && TypeModel.Kind.MAP == model.getKind() && model.isStructured()) {
+			checkMap(parser, first, model.getElement(), path, collector);
+		} else if (JsonToken.START_ARRAY == start && TypeModel.Kind.LIST == model.getKind() && model.isStructured()) {
+			checkList(parser, first, model.getElement(), path, 0, collector);
+		} else if (JsonToken.END_OBJECT != first && JsonToken.END_ARRAY != first) {
+			skipRest(parser);
+		}
+	}
+
+	/**
+	 * マップの値のバリデーションを行う。
+	 *
+	 * @param parser パーサ
+	 * @param first オブジェクト開始直後のトークン
+	 * @param element 値の型のモデル
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	private void checkMap(final JsonParser parser, final JsonToken first, final TypeModel element,
+			final ValidationPath path, final ValidationResultCollector collector) throws Exception {
+		for (JsonToken token = first; JsonToken.FIELD_NAME == token; token = parser.nextToken()) {
+			if (collector.isStopped()) {
+				stop(parser, collector);
+				return;
+			}
+			path.push(parser.getCurrentName());
+			checkElement(parser, parser.nextToken(), element, path, collector);
+			path.pop();
+		}
+	}
+
+	/**
+	 * 配列のバリデーションを行う。
+	 *
+	 * @param parser パーサ
+	 * @param first 配列開始直後のトークン
+	 * @param element 要素の型のモデル
+	 * @param path パス
+	 * @param firstIndex 開始インデックス
+	 * @param collector エラー収集
+	 */
+	private void checkList(final JsonParser parser, final JsonToken first, final TypeModel element,
+			final ValidationPath path, final int firstIndex, final ValidationResultCollector collector)
+			throws Exception {
+		int index = firstIndex;
+		for (JsonToken token = first; JsonToken.END_ARRAY != token && null != token; token = parser.nextToken()) {
+			if (collector.isStopped()) {
+				stop(parser, collector);
+				return;
+			}
+			path.push(index);
+			checkElement(parser, token, element, path, collector);
+			path.pop();
+			index++;
+		}
+	}
+
+	/**
+	 * 配列の要素またはマップの値のバリデーションを行う。
+	 *
+	 * @param parser パーサ
+	 * @param token 値の先頭トークン
+	 * @param model 型のモデル
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	private void checkElement(final JsonParser parser, final JsonToken token, final TypeModel model,
+			final ValidationPath path, final ValidationResultCollector collector) throws Exception {
+		if (JsonToken.START_OBJECT == token || JsonToken.START_ARRAY == token) {
+			checkContent(parser, token, parser.nextToken(), model, path, collector);
+		}
+	}
+
+	/**
+	 * コンテナのバリデーションを途中で終了する。
+	 * <p>
+	 * 以降のバリデーションが結果に影響する場合、外側のオブジェクトの続きを検証する為にコンテナの残りを読み飛ばす。
+	 * </p>
+	 *
+	 * @param parser パーサ
+	 * @param collector エラー収集
+	 */
+	private static void stop(final JsonParser parser, final ValidationResultCollector collector) throws IOException {
+		if (!collector.isFinished()) {
+			skipRest(parser);
+		}
+	}
+
+	/**
+	 * 現在のコンテナの残りを読み飛ばす。
+	 * <p>
+	 * コンテナ開始直後のトークンを読み込んだ状態で呼び出す。
+	 * </p>
+	 *
+	 * @param parser パーサ
+	 */
+	private static void skipRest(final JsonParser parser) throws IOException {
+		parser.skipChildren();
+		for (JsonToken token = parser.nextToken(); null != token && JsonToken.END_OBJECT != token
+				&& JsonToken.END_ARRAY != token; token = parser.nextToken()) {
+			parser.skipChildren();
+		}
+	}
+
+	/**
+	 * 入力中の位置を取得する。
+	 *
+	 * @param location 位置
+	 * @return バイト位置。バイト位置を持たない場合、文字位置
+	 */
+	static long offset(final JsonLocation location) {
+		long offset = location.getByteOffset();
+		return (-1 != offset) ? offset : location.getCharOffset();
+	}
+
+	/**
+	 * スカラー値を読み込む。
+	 *
+	 * @param parser パーサ
+	 * @param token トークン
+	 * @return 値
+	 */
+	private static Object readScalar(final JsonParser parser, final JsonToken token) throws IOException {
+		switch (token) {
+		case VALUE_STRING:
+			return parser.getText();
+		case VALUE_NUMBER_INT:
+		case VALUE_NUMBER_FLOAT:
+			return parser.getDoubleValue();
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * オブジェクトを読み込む。
+	 *
+	 * @param parser パーサ
+	 * @return オブジェクト
+	 */
+	private static Map<String, Object> readObject(final JsonParser parser) throws IOException {
+		Map<String, Object> map = new LinkedHashMap<String, Object>();
+		while (JsonToken.FIELD_NAME == parser.nextToken()) {
+			String name = parser.getCurrentName();
+			map.put(name, readValue(parser, parser.nextToken()));
+		}
+		return map;
+	}
+
+	/**
+	 * 配列を読み込む。
+	 *
+	 * @param parser パーサ
+	 * @return 配列
+	 */
+	private static List<Object> readList(final JsonParser parser) throws IOException {
+		List<Object> list = new ArrayList<Object>();
+		for (JsonToken token = parser.nextToken(); JsonToken.END_ARRAY != token && null != token; token = parser
+				.nextToken()) {
+			list.add(readValue(parser, token));
+		}
+		return list;
+	}
+
+	private static Object readValue(final JsonParser parser, final JsonToken token) throws IOException {
+		if (JsonToken.START_OBJECT == token) {
+			return readObject(parser);
+		} else if (JsonToken.START_ARRAY == token) {
+			return readList(parser);
+		} else {
+			return readScalar(parser, token);
+		}
+	}
+}
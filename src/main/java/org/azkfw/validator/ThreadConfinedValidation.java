@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.lang.reflect.Field;
+
+import org.azkfw.validator.validation.Validation;
+import org.azkfw.validator.validation.ValidationContext;
+
+/**
+ * このクラスは、スレッドセーフでないユーザ定義バリデーションをスレッド毎のインスタンスで呼び出すクラスです。
+ * 
+ * <p>
+ * 計画の構築時に生成したインスタンスは構築したスレッドで使用し、他のスレッドでは初回の呼び出し時に生成と初期化を行います。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ * @see org.azkfw.validator.annotation.NotThreadSafe
+ */
+final class ThreadConfinedValidation implements Validation {
+
+	private final Validator validator;
+
+	/** バリデーションクラス */
+	private final Class<? extends Validation> clazz;
+
+	/** 名前 */
+	private final String name;
+
+	/** 対象フィールド */
+	private final Field field;
+
+	/** 実行順 */
+	private final int order;
+
+	/** スレッド毎のインスタンス */
+	private final ThreadLocal<Validation> instances;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param validator バリデータ
+	 * @param clazz バリデーションクラス
+	 * @param name 名前
+	 * @param field 対象フィールド
+	 * @param first 構築したスレッドのインスタンス(初期化済み)
+	 */
+	ThreadConfinedValidation(final Validator validator, final Class<? extends Validation> clazz, final String name,
+			final Field field, final Validation first) {
+		this.validator = validator;
+		this.clazz = clazz;
+		this.name = name;
+		this.field = field;
+		this.order = first.order();
+		this.instances = new ThreadLocal<Validation>();
+		this.instances.set(first);
+	}
+
+	@Override
+	public ValidationResult validate(final ValidationContext context) {
+		return current().validate(context);
+	}
+
+	@Override
+	public int order() {
+		return order;
+	}
+
+	/**
+	 * 現在のスレッドのインスタンスを取得する。
+	 * 
+	 * @return インスタンス
+	 */
+	Validation current() {
+		Validation validation = instances.get();
+		if (null == validation) {
+			try {
+				validation = validator.newCustom(clazz, name, field);
+			} catch (RuntimeException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+			instances.set(validation);
+		}
+		return validation;
+	}
+}
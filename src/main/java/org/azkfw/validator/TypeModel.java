@@ -0,0 +1,276 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * このクラスは、フィールドの型をバリデーションの構造として解決した不変のモデルです。
+ * 
+ * <p>
+ * 型はバリデーション計画の構築時に一度だけ解決されます。 {@link Collection} と配列は {@link Kind#LIST}、
+ * {@link Map} は値の型を持つ {@link Kind#MAP}、バリデーション計画を持つクラスは {@link Kind#OBJECT} となり、
+ * <code>List&lt;List&lt;T&gt;&gt;</code> のようにネストした構造も要素のモデルとして保持します。
+ * </p>
+ * 
+ * <p>
+ * 型変数はバリデーションクラスのジェネリックスーパークラスの型引数で解決されます。 解決できない型変数は上限境界で解決されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class TypeModel {
+
+	/**
+	 * 型の種類
+	 */
+	public static enum Kind {
+		/** 子要素のバリデーションを行わない値 */
+		SCALAR,
+		/** バリデーション計画を持つオブジェクト */
+		OBJECT,
+		/** 配列 */
+		LIST,
+		/** 名前と値のマップ */
+		MAP
+	}
+
+	/** <code>Object</code> のモデル */
+	static final TypeModel UNKNOWN = new TypeModel(Kind.SCALAR, Object.class, null);
+
+	/** 種類 */
+	private final Kind kind;
+
+	/** 型 */
+	private final Class<?> type;
+
+	/** 要素または値のモデル */
+	private final TypeModel element;
+
+	/** 子要素のバリデーションの有無 */
+	private final boolean structured;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param kind 種類
+	 * @param type 型
+	 * @param element 要素または値のモデル
+	 */
+	private TypeModel(final Kind kind, final Class<?> type, final TypeModel element) {
+		this.kind = kind;
+		this.type = type;
+		this.element = element;
+		this.structured = (Kind.OBJECT == kind) || (null != element && element.structured);
+	}
+
+	/**
+	 * バリデーションクラスのオブジェクトのモデルを生成する。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @return モデル
+	 */
+	static TypeModel object(final Class<?> clazz) {
+		return new TypeModel(Kind.OBJECT, clazz, null);
+	}
+
+	/**
+	 * 型のモデルを生成する。
+	 * 
+	 * @param type 型
+	 * @param bindings 型変数の解決
+	 * @return モデル
+	 * @see #bindings(Class)
+	 */
+	static TypeModel of(final Type type, final Map<TypeVariable<?>, Type> bindings) {
+		Type t = resolve(type, bindings);
+		if (t instanceof GenericArrayType) {
+			return list(Object[].class, of(((GenericArrayType) t).getGenericComponentType(), bindings));
+		}
+
+		Class<?> raw = raw(t);
+		if (raw.isArray()) {
+			return list(raw, of(raw.getComponentType(), bindings));
+		} else if (Collection.class.isAssignableFrom(raw)) {
+			return new TypeModel(Kind.LIST, raw, of(argument(t, Collection.class, 0, bindings), bindings));
+		} else if (Map.class.isAssignableFrom(raw)) {
+			return new TypeModel(Kind.MAP, raw, of(argument(t, Map.class, 1, bindings), bindings));
+		} else if (raw.isPrimitive() || raw.isEnum() || raw.getName().startsWith("java.")) {
+			return (Object.class == raw) ? UNKNOWN : new TypeModel(Kind.SCALAR, raw, null);
+		}
+		return object(raw);
+	}
+
+	private static TypeModel list(final Class<?> type, final TypeModel element) {
+		return new TypeModel(Kind.LIST, type, element);
+	}
+
+	/**
+	 * クラスのジェネリックスーパークラスから型変数の解決を取得する。
+	 * 
+	 * @param clazz クラス
+	 * @return 型変数と型のマップ
+	 */
+	static Map<TypeVariable<?>, Type> bindings(final Class<?> clazz) {
+		Map<TypeVariable<?>, Type> bindings = new HashMap<TypeVariable<?>, Type>();
+		for (Class<?> c = clazz; null != c; c = c.getSuperclass()) {
+			bind(c.getGenericSuperclass(), bindings);
+		}
+		return Collections.unmodifiableMap(bindings);
+	}
+
+	/**
+	 * パラメータ化された型の型引数を型変数の解決に追加する。
+	 * 
+	 * @param type 型
+	 * @param bindings 型変数の解決
+	 */
+	private static void bind(final Type type, final Map<TypeVariable<?>, Type> bindings) {
+		if (type instanceof ParameterizedType) {
+			ParameterizedType pType = (ParameterizedType) type;
+			TypeVariable<?>[] vars = raw(pType).getTypeParameters();
+			Type[] args = pType.getActualTypeArguments();
+			for (int i = 0; i < vars.length && i < args.length; i++) {
+				bindings.put(vars[i], resolve(args[i], bindings));
+			}
+		}
+	}
+
+	/**
+	 * 型変数とワイルドカードを解決する。
+	 * 
+	 * @param type 型
+	 * @param bindings 型変数の解決
+	 * @return 型
+	 */
+	private static Type resolve(final Type type, final Map<TypeVariable<?>, Type> bindings) {
+		Type t = type;
+		for (int i = 0; i < 16; i++) {
+			if (t instanceof TypeVariable) {
+				Type bound = bindings.get(t);
+				t = (null != bound) ? bound : ((TypeVariable<?>) t).getBounds()[0];
+			} else if (t instanceof WildcardType) {
+				t = ((WildcardType) t).getUpperBounds()[0];
+			} else {
+				return t;
+			}
+		}
+		return Object.class;
+	}
+
+	/**
+	 * 型が継承する対象クラスの型引数を取得する。
+	 * 
+	 * @param type 型
+	 * @param target 対象クラス
+	 * @param index 型引数の位置
+	 * @param bindings 型変数の解決
+	 * @return 型引数。解決できない場合、<code>Object</code>
+	 */
+	private static Type argument(final Type type, final Class<?> target, final int index,
+			final Map<TypeVariable<?>, Type> bindings) {
+		Map<TypeVariable<?>, Type> local = new HashMap<TypeVariable<?>, Type>(bindings);
+		bind(type, local);
+
+		Class<?> raw = raw(type);
+		if (target == raw) {
+			Type arg = local.get(target.getTypeParameters()[index]);
+			return (null != arg) ? arg : Object.class;
+		}
+
+		Type superclass = raw.getGenericSuperclass();
+		if (null != superclass && target.isAssignableFrom(raw(superclass))) {
+			return argument(superclass, target, index, local);
+		}
+		for (Type iface : raw.getGenericInterfaces()) {
+			if (target.isAssignableFrom(raw(iface))) {
+				return argument(iface, target, index, local);
+			}
+		}
+		return Object.class;
+	}
+
+	private static Class<?> raw(final Type type) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		} else if (type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		} else if (type instanceof GenericArrayType) {
+			return Object[].class;
+		}
+		return Object.class;
+	}
+
+	/**
+	 * 種類を取得する。
+	 * 
+	 * @return 種類
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * 型を取得する。
+	 * 
+	 * @return 型
+	 */
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * 配列の要素、またはマップの値のモデルを取得する。
+	 * 
+	 * @return モデル。{@link Kind#LIST}/{@link Kind#MAP} 以外の場合、<code>null</code>
+	 */
+	public TypeModel getElement() {
+		return element;
+	}
+
+	/**
+	 * 子要素のバリデーションを行う型か判断する。
+	 * 
+	 * @return {@link Kind#SCALAR} 以外、かつ要素が子要素のバリデーションを行う場合、<code>true</code>
+	 */
+	public boolean isStructured() {
+		return structured;
+	}
+
+	@Override
+	public String toString() {
+		switch (kind) {
+		case LIST:
+			return "List<" + element + ">";
+		case MAP:
+			return "Map<String, " + element + ">";
+		default:
+			return type.getSimpleName();
+		}
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+/**
+ * この列挙型は、フィールドのバリデーションを評価する方式を定義します。
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public enum ValidationEngine {
+
+	/** {@link org.azkfw.validator.validation.Validation} を実行順に呼び出す */
+	INTERPRETED,
+
+	/**
+	 * 組み込みバリデーションをフィールド毎に合成したハンドルで評価する。
+	 * <p>
+	 * ユーザ定義バリデーションを持つフィールドは {@link #INTERPRETED} で評価する。
+	 * </p>
+	 */
+	COMPILED
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このクラスは、{@link ValidationPlanFactory} からバリデーション計画を構築するクラスです。
+ * 
+ * <p>
+ * 生成されたクラスはアノテーションの解析を省略しますが、フィールドの取得と名前の解決は構築時に行います。
+ * フィールドは {@link Class#getDeclaredField(String)} で取得し、名前の解決には {@link Validator} のラベルバンドルとロケールを使用します。
+ * バリデーションは実行順で安定ソートされます。 フィールドの型のモデルは対象クラスの型引数で解決されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class ValidationPlanBuilder {
+
+	private final Validator validator;
+
+	/** 対象クラス */
+	private final Class<?> type;
+
+	/** 型変数の解決 */
+	private final Map<TypeVariable<?>, Type> bindings;
+
+	/** フィールド計画一覧 */
+	private final List<FieldValidationPlan> fields;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param validator バリデータ
+	 * @param type 対象クラス
+	 */
+	ValidationPlanBuilder(final Validator validator, final Class<?> type) {
+		this.validator = validator;
+		this.type = type;
+		this.bindings = TypeModel.bindings(type);
+		this.fields = new ArrayList<FieldValidationPlan>();
+	}
+
+	/**
+	 * メッセージ内で使用する名前を解決する。
+	 * 
+	 * @param labelId ラベルID({@link org.azkfw.validator.annotation.NameBindLabel})。存在しない場合、<code>null</code>
+	 * @param value 値({@link org.azkfw.validator.annotation.NameBindValue})。存在しない場合、<code>null</code>
+	 * @return 名前
+	 */
+	public String name(final String labelId, final String value) {
+		return validator.getName(labelId, value);
+	}
+
+	/**
+	 * ユーザ定義バリデーションクラス一覧を生成する。
+	 * 
+	 * @param classes バリデーションクラス
+	 * @return バリデーションクラス一覧
+	 */
+	@SafeVarargs
+	public final List<Class<? extends Validation>> custom(final Class<? extends Validation>... classes) {
+		List<Class<? extends Validation>> list = new ArrayList<Class<? extends Validation>>(classes.length);
+		for (Class<? extends Validation> clazz : classes) {
+			list.add(clazz);
+		}
+		return list;
+	}
+
+	/**
+	 * フィールドを追加する。
+	 * <p>
+	 * ユーザ定義バリデーションは {@link Validator#getCustomValidationFactory()} で生成され、組み込みのバリデーションより前に追加される。
+	 * </p>
+	 * 
+	 * @param declaringClass フィールドを宣言したクラス
+	 * @param fieldName フィールド名
+	 * @param name 名前(JSONプロパティ名)
+	 * @param label ラベル
+	 * @param customs ユーザ定義バリデーションクラス一覧。{@link org.azkfw.validator.annotation.CustomValidate}
+	 *            が存在しない場合、<code>null</code>
+	 * @param validations バリデーション一覧
+	 * @return ビルダー
+	 * @throws Exception フィールドが存在しない場合、またはユーザ定義バリデーションの生成に失敗した場合
+	 */
+	public ValidationPlanBuilder field(final Class<?> declaringClass, final String fieldName, final String name,
+			final String label, final List<Class<? extends Validation>> customs, final Validation... validations)
+			throws Exception {
+		Field field = declaringClass.getDeclaredField(fieldName);
+
+		List<Validation> list = new ArrayList<Validation>();
+		if (null != customs) {
+			for (Class<? extends Validation> clazz : customs) {
+				list.add(validator.createCustom(clazz, label, field));
+			}
+		}
+		list.addAll(Arrays.asList(validations));
+		Collections.sort(list, Validator.ORDER);
+		fields.add(new FieldValidationPlan(field, name, label, list, TypeModel.of(field.getGenericType(), bindings),
+				null != customs));
+		return this;
+	}
+
+	/**
+	 * バリデーション計画を構築する。
+	 * 
+	 * @return バリデーション計画
+	 */
+	ClassValidationPlan build() {
+		return new ClassValidationPlan(type, fields);
+	}
+}
@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+/**
+ * このインターフェースは、クラスのバリデーション計画を定義する為のインターフェースです。
+ * 
+ * <p>
+ * 実装は {@link org.azkfw.validator.processor.ValidationPlanProcessor} によってコンパイル時に生成され、
+ * <code>META-INF/services/org.azkfw.validator.ValidationPlanFactory</code> に登録されます。 {@link Validator}
+ * は対象クラスのクラスローダから <code>&lt;クラス名&gt;_ValidationPlanFactory</code> の名前で実装を読み込み、
+ * 実装が存在するクラスはアノテーションを解析せずに計画を構築します。
+ * 実装が存在しないクラスはリフレクションで計画を構築します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public interface ValidationPlanFactory {
+
+	/**
+	 * 対象クラスを取得する。
+	 * 
+	 * @return 対象クラス
+	 */
+	public Class<?> getType();
+
+	/**
+	 * バリデーション計画を定義する。
+	 * <p>
+	 * フィールドはスーパークラス側から宣言順に定義する。
+	 * </p>
+	 * 
+	 * @param builder ビルダー
+	 * @throws Exception 定義に失敗した場合
+	 */
+	public void define(final ValidationPlanBuilder builder) throws Exception;
+
+}
@@ -0,0 +1,353 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * このクラスは、ドキュメントのストリームをバリデーションする {@link Flow.Processor} です。
+ * 
+ * <p>
+ * 受け取ったドキュメント({@link String}、<code>byte[]</code>、{@link Map}、POJO)を {@link Executor}
+ * でバリデーションし、ドキュメント毎の {@link RecordValidationResult} を発行します。 レコード番号は受け取った順の番号です。
+ * </p>
+ * 
+ * <p>
+ * 上流への要求数は、実行中と発行待ちのドキュメント数の合計が同時実行数を超えないように調整されます。
+ * 下流の要求が止まると発行待ちの結果が溜まり上流への要求も止まる為、 遅い購読者はバッファを増やさずにバリデーションを抑制します。
+ * 順序を保証する場合は受け取った順に、保証しない場合は終了した順に発行します。
+ * </p>
+ * 
+ * <p>
+ * 購読者は一つのみです。 設定は購読の開始前に行ってください。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class ValidationProcessor implements Flow.Processor<Object, RecordValidationResult> {
+
+	private final Validator validator;
+
+	/** バリデーションクラス */
+	private final Class<?> clazz;
+
+	private Executor executor;
+
+	/** 同時実行数 */
+	private int concurrency;
+
+	/** 順序の保証 */
+	private boolean ordered;
+
+	private volatile Flow.Subscription upstream;
+	private volatile Flow.Subscriber<? super RecordValidationResult> downstream;
+
+	/** 下流からの要求数 */
+	private final AtomicLong requested;
+
+	/** 発行処理の実行要求数 */
+	private final AtomicInteger wip;
+
+	/** 順序を保証する場合の終了した結果 */
+	private final Map<Long, RecordValidationResult> completed;
+
+	/** 順序を保証しない場合の終了した結果 */
+	private final Queue<RecordValidationResult> queue;
+
+	/** 受け取ったドキュメント数 */
+	private volatile long received;
+
+	/** 発行した結果数(発行処理内でのみ更新) */
+	private long emitted;
+
+	/** 上流へ要求して未発行のドキュメント数(発行処理内でのみ更新) */
+	private long pending;
+
+	private volatile boolean done;
+	private volatile Throwable error;
+	private volatile boolean cancelled;
+
+	/** 終了通知済み(発行処理内でのみ更新) */
+	private boolean terminated;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * バリデータの {@link java.util.concurrent.ForkJoinPool} で、プールの並列度を同時実行数として順序を保証して実行する。
+	 * </p>
+	 * 
+	 * @param validator バリデータ
+	 * @param clazz バリデーションクラス
+	 */
+	public ValidationProcessor(final Validator validator, final Class<?> clazz) {
+		this.validator = validator;
+		this.clazz = clazz;
+		this.executor = validator.getForkJoinPool();
+		this.concurrency = validator.getForkJoinPool().getParallelism();
+		this.ordered = true;
+		this.requested = new AtomicLong();
+		this.wip = new AtomicInteger();
+		this.completed = new ConcurrentHashMap<Long, RecordValidationResult>();
+		this.queue = new ConcurrentLinkedQueue<RecordValidationResult>();
+	}
+
+	/**
+	 * バリデーションを実行する {@link Executor} を設定する。
+	 * 
+	 * @param executor {@link Executor}
+	 */
+	public void setExecutor(final Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * 同時実行数を設定する。
+	 * <p>
+	 * 実行中と発行待ちのドキュメント数の上限となる。
+	 * </p>
+	 * 
+	 * @param concurrency 同時実行数
+	 */
+	public void setConcurrency(final int concurrency) {
+		this.concurrency = Math.max(1, concurrency);
+	}
+
+	/**
+	 * 受け取った順に結果を発行するか設定する。
+	 * 
+	 * @param ordered 受け取った順に発行する場合、<code>true</code>
+	 */
+	public void setOrdered(final boolean ordered) {
+		this.ordered = ordered;
+	}
+
+	@Override
+	public void subscribe(final Flow.Subscriber<? super RecordValidationResult> subscriber) {
+		if (null != downstream) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(final long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+			subscriber.onError(new IllegalStateException("Processor already has a subscriber."));
+			return;
+		}
+		downstream = subscriber;
+		subscriber.onSubscribe(new Flow.Subscription() {
+			@Override
+			public void request(final long n) {
+				if (0 >= n) {
+					error = new IllegalArgumentException("Non-positive request.[" + n + "]");
+					done = true;
+				} else {
+					for (long current = requested.get(); Long.MAX_VALUE != current
+							&& !requested.compareAndSet(current, addCap(current, n)); current = requested.get()) {
+					}
+				}
+				drain();
+			}
+
+			@Override
+			public void cancel() {
+				cancelled = true;
+				Flow.Subscription s = upstream;
+				if (null != s) {
+					s.cancel();
+				}
+			}
+		});
+		drain();
+	}
+
+	@Override
+	public void onSubscribe(final Flow.Subscription subscription) {
+		if (null != upstream) {
+			subscription.cancel();
+			return;
+		}
+		upstream = subscription;
+		if (cancelled) {
+			subscription.cancel();
+			return;
+		}
+		drain();
+	}
+
+	@Override
+	public void onNext(final Object item) {
+		final long index = received;
+		received = index + 1;
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					RecordValidationResult result;
+					try {
+						result = new RecordValidationResult(index, validate(item));
+					} catch (RuntimeException ex) {
+						onError(ex);
+						return;
+					}
+					if (ordered) {
+						completed.put(index, result);
+					} else {
+						queue.offer(result);
+					}
+					drain();
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			onError(ex);
+		}
+	}
+
+	@Override
+	public void onError(final Throwable throwable) {
+		if (null == error) {
+			error = throwable;
+		}
+		done = true;
+		drain();
+	}
+
+	@Override
+	public void onComplete() {
+		done = true;
+		drain();
+	}
+
+	/**
+	 * ドキュメントをバリデーションする。
+	 * 
+	 * @param item ドキュメント
+	 * @return バリデーション結果
+	 */
+	private List<ValidationResult> validate(final Object item) {
+		if (item instanceof String) {
+			return validator.validate((String) item, clazz);
+		} else if (item instanceof byte[]) {
+			return validator.validate((byte[]) item, clazz);
+		}
+		return validator.validate(item, clazz);
+	}
+
+	/**
+	 * 終了した結果を要求数まで発行し、上流へ要求する。
+	 * <p>
+	 * 複数スレッドから呼び出されるが、発行処理は常に一つのスレッドで逐次に行われる。
+	 * </p>
+	 */
+	private void drain() {
+		if (0 != wip.getAndIncrement()) {
+			return;
+		}
+
+		int missed = 1;
+		do {
+			Flow.Subscriber<? super RecordValidationResult> subscriber = downstream;
+			if (null != subscriber && !cancelled && !terminated) {
+				if (null != error) {
+					terminated = true;
+					cancelUpstream();
+					subscriber.onError(error);
+				} else {
+					long r = requested.get();
+					long e = 0;
+					while (e != r && !cancelled) {
+						RecordValidationResult result = poll();
+						if (null == result) {
+							break;
+						}
+						subscriber.onNext(result);
+						emitted++;
+						pending--;
+						e++;
+					}
+					if (0 != e && Long.MAX_VALUE != r) {
+						requested.addAndGet(-e);
+					}
+
+					if (done && emitted == received) {
+						terminated = true;
+						subscriber.onComplete();
+					} else {
+						Flow.Subscription s = upstream;
+						long want = concurrency - pending;
+						if (null != s && !done && 0 < want) {
+							pending += want;
+							s.request(want);
+						}
+					}
+				}
+			}
+			missed = wip.addAndGet(-missed);
+		} while (0 != missed);
+	}
+
+	/**
+	 * 次に発行する結果を取得する。
+	 * 
+	 * @return 結果。存在しない場合、<code>null</code>
+	 */
+	private RecordValidationResult poll() {
+		if (ordered) {
+			return completed.remove(emitted);
+		}
+		return queue.poll();
+	}
+
+	/**
+	 * 要求数を加算する。
+	 * <p>
+	 * 桁あふれする場合は {@link Long#MAX_VALUE}(無制限)とする。
+	 * </p>
+	 * 
+	 * @param a 要求数
+	 * @param b 追加する要求数
+	 * @return 加算した要求数
+	 */
+	static long addCap(final long a, final long b) {
+		long r = a + b;
+		if (0 > r) {
+			r = Long.MAX_VALUE;
+		}
+		return r;
+	}
+
+	private void cancelUpstream() {
+		Flow.Subscription s = upstream;
+		if (null != s) {
+			s.cancel();
+		}
+	}
+}
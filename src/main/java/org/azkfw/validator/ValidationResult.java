@@ -17,9 +17,22 @@
  */
 package org.azkfw.validator;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.azkfw.validator.bundle.MessageBundle;
+import org.azkfw.validator.bundle.MessageTemplate;
+import org.azkfw.validator.validation.Validation;
+import org.azkfw.validator.validation.ValidationContext;
+
 /**
  * このクラスは、バリデーション結果を格納するクラスです。
  * 
+ * <p>
+ * エラーはメッセージIDとキーワードを保持し、メッセージ文字列は {@link #getMessage()} が呼び出された時に初めて生成されます。
+ * </p>
+ * 
  * @since 1.0.0
  * @version 1.0.0 2015/02/13
  * @author kawakicchi
@@ -30,6 +43,33 @@ public final class ValidationResult {
 
 	private String message;
 
+	/** メッセージID */
+	private String messageId;
+
+	/** バリデーション */
+	private Validation validation;
+
+	/** 名前 */
+	private String name;
+
+	/** パス */
+	private String path;
+
+	/** 値 */
+	private Object value;
+
+	/** メッセージテンプレート */
+	private MessageTemplate template;
+
+	/** メッセージバンドル */
+	private MessageBundle messages;
+
+	/** ロケール */
+	private Locale locale;
+
+	/** 入力中の位置 */
+	private long offset = -1;
+
 	private static ValidationResult SUCCESS = new ValidationResult();
 
 	public static ValidationResult success() {
@@ -43,17 +83,199 @@ public final class ValidationResult {
 		return result;
 	}
 
+	/**
+	 * メッセージの生成を遅延したエラー結果を生成する。
+	 * 
+	 * @param validation バリデーション
+	 * @param messageId メッセージID
+	 * @param name メッセージ内で使用する名前
+	 * @param template メッセージテンプレート。<code>null</code>の場合、メッセージIDからバンドルを検索する
+	 * @param context コンテキスト
+	 * @return バリデーション結果
+	 */
+	public static ValidationResult error(final Validation validation, final String messageId, final String name,
+			final MessageTemplate template, final ValidationContext context) {
+		ValidationResult result = new ValidationResult();
+		result.result = false;
+		result.validation = validation;
+		result.messageId = messageId;
+		result.name = name;
+		result.path = context.getPath();
+		result.value = context.getValue();
+		result.template = template;
+		result.messages = context.getMessageBundle();
+		result.locale = context.getLocale();
+		return result;
+	}
+
 	private ValidationResult() {
 		result = true;
 		message = null;
 	}
 
+	/**
+	 * コンテキストの情報を持たないエラーにコンテキストの情報を補完する。
+	 * <p>
+	 * {@link #error(String)} で生成されたユーザ定義バリデーションのエラーに、パス、名前、値、バリデーションを設定する。
+	 * エラーはバリデーションで共有されている可能性がある為、補完したコピーを返す。
+	 * </p>
+	 * 
+	 * @param validation バリデーション
+	 * @param context コンテキスト
+	 * @return バリデーション結果。補完が不要な場合、この結果
+	 */
+	ValidationResult bind(final Validation validation, final ValidationContext context) {
+		if (result || null != path) {
+			return this;
+		}
+		ValidationResult bound = new ValidationResult();
+		bound.result = false;
+		bound.message = message;
+		bound.messageId = messageId;
+		bound.validation = (null != this.validation) ? this.validation : validation;
+		bound.name = (null != name) ? name : context.getName();
+		bound.path = context.getPath();
+		bound.value = (null != value) ? value : context.getValue();
+		bound.template = template;
+		bound.messages = (null != messages) ? messages : context.getMessageBundle();
+		bound.locale = (null != locale) ? locale : context.getLocale();
+		bound.offset = offset;
+		return bound;
+	}
+
 	public boolean isResult() {
 		return result;
 	}
 
+	/**
+	 * メッセージを取得する。
+	 * 
+	 * @return メッセージ
+	 */
 	public String getMessage() {
+		if (null == message && !result) {
+			message = render(locale);
+		}
 		return message;
 	}
 
+	/**
+	 * ロケールを指定してメッセージを取得する。
+	 * 
+	 * @param locale ロケール
+	 * @return メッセージ
+	 */
+	public String getMessage(final Locale locale) {
+		if (null == messageId && null == template) {
+			return message;
+		}
+		return render(locale);
+	}
+
+	/**
+	 * メッセージIDを取得する。
+	 * 
+	 * @return メッセージID
+	 */
+	public String getMessageId() {
+		return messageId;
+	}
+
+	/**
+	 * バリデーションを取得する。
+	 * 
+	 * @return バリデーション
+	 */
+	public Validation getValidation() {
+		return validation;
+	}
+
+	/**
+	 * パスを取得する。
+	 * 
+	 * @return パス
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * 名前を取得する。
+	 * 
+	 * @return 名前
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * 値を取得する。
+	 * 
+	 * @return 値
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	/**
+	 * 入力中の位置を取得する。
+	 * <p>
+	 * ストリーミングでバリデーションした場合のみ設定される。 エラーを検出した時点で読み込んでいたトークンの位置を示す。
+	 * バイト列から読み込んだ場合はバイト位置、文字列から読み込んだ場合は文字位置になる。
+	 * </p>
+	 * 
+	 * @return 位置。不明な場合、<code>-1</code>
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	/**
+	 * 入力中の位置を設定する。
+	 * 
+	 * @param offset 位置
+	 */
+	void setOffset(final long offset) {
+		this.offset = offset;
+	}
+
+	/**
+	 * メッセージのキーワードを取得する。
+	 * 
+	 * @return キーワード
+	 */
+	public Map<String, Object> getArguments() {
+		Map<String, Object> arguments = new HashMap<String, Object>();
+		arguments.put("name", name);
+		arguments.put("value", value);
+		arguments.put("path", path);
+		return arguments;
+	}
+
+	private String render(final Locale locale) {
+		if (null == messageId && null == template) {
+			return message;
+		}
+
+		MessageTemplate tmp = template;
+		if (null == tmp && null != messages) {
+			tmp = messages.getTemplate(messageId, locale);
+		}
+		if (null == tmp) {
+			return String.format("Undefined validation error message.[%s]", messageId);
+		}
+		return tmp.render(new MessageTemplate.Keywords() {
+			@Override
+			public Object get(final String key) {
+				if ("name".equals(key)) {
+					return name;
+				} else if ("value".equals(key)) {
+					return value;
+				} else if ("path".equals(key)) {
+					return path;
+				}
+				return null;
+			}
+		});
+	}
 }
@@ -0,0 +1,338 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * このクラスは、1回のバリデーションで発生したエラーを収集するクラスです。
+ * 
+ * <p>
+ * 循環参照を検出する為、バリデーション中のPOJOも保持します。
+ * </p>
+ * 
+ * <p>
+ * 親のエラー収集を指定して生成した場合、オブジェクト1つ分のエラーをフィールドの位置(キー)と共に保持し、
+ * {@link #flush()} でキーの昇順に親へ追加します。 ドキュメントの順に入力されるフィールドのエラーを、
+ * 最大エラー数の範囲でフィールドの宣言順に選ぶ為に使用します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+final class ValidationResultCollector {
+
+	/** 最大エラー数 */
+	private final int maxErrors;
+
+	/** エラー一覧 */
+	private final List<ValidationResult> results;
+
+	/** 終了フラグ */
+	private boolean stopped;
+
+	/** バリデーション中のPOJO(同一性で比較) */
+	private Set<Object> beans;
+
+	/** 親のエラー収集。キー順に保持しない場合、<code>null</code> */
+	private final ValidationResultCollector parent;
+
+	/** キー毎の入力済み、またはエラーにならないことを表すフラグ */
+	private final boolean[] present;
+
+	/** エラー毎のキー */
+	private int[] keys;
+
+	/** 現在のキー */
+	private int key;
+
+	/** 現在のキー以下のエラー数 */
+	private int below;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param mode モード
+	 * @param maxErrors 最大エラー数
+	 */
+	ValidationResultCollector(final ValidationMode mode, final int maxErrors) {
+		this.maxErrors = (ValidationMode.FAIL_FAST == mode) ? 1 : maxErrors;
+		this.results = new ArrayList<ValidationResult>();
+		this.stopped = (0 >= this.maxErrors);
+		this.parent = null;
+		this.present = null;
+	}
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * オブジェクト1つ分のエラーをキーと共に保持する。 最大エラー数は親に追加可能なエラー数となる。
+	 * </p>
+	 * 
+	 * @param parent 親のエラー収集
+	 * @param present キー毎の入力済み、またはエラーにならないことを表すフラグ(呼び出し元で更新する)
+	 */
+	ValidationResultCollector(final ValidationResultCollector parent, final boolean[] present) {
+		this.maxErrors = parent.remaining();
+		this.results = new ArrayList<ValidationResult>();
+		this.parent = parent;
+		this.present = present;
+		this.keys = new int[4];
+	}
+
+	/**
+	 * エラーを追加する。
+	 * <p>
+	 * キー順に保持する場合、エラーは現在のキーで保持する。
+	 * </p>
+	 * 
+	 * @param result エラー
+	 * @return バリデーションを継続する場合、<code>true</code>
+	 */
+	public boolean add(final ValidationResult result) {
+		if (null != parent) {
+			if (below >= maxErrors) {
+				return false;
+			}
+			if (keys.length == results.size()) {
+				keys = Arrays.copyOf(keys, keys.length * 2);
+			}
+			keys[results.size()] = key;
+			results.add(result);
+			below++;
+			return below < maxErrors;
+		}
+		if (!stopped) {
+			results.add(result);
+			stopped = (results.size() >= maxErrors);
+		}
+		return !stopped;
+	}
+
+	/**
+	 * 追加可能なエラー数を取得する。
+	 * <p>
+	 * キー順に保持する場合、現在のキーで追加可能なエラー数を返す。
+	 * </p>
+	 * 
+	 * @return 追加可能なエラー数
+	 */
+	public int remaining() {
+		if (null != parent) {
+			return Math.max(0, maxErrors - below);
+		}
+		return stopped ? 0 : maxErrors - results.size();
+	}
+
+	/**
+	 * バリデーションを終了するか判断する。
+	 * <p>
+	 * キー順に保持する場合、現在のキーのエラーが最大エラー数に含まれない時に <code>true</code> を返す。
+	 * </p>
+	 * 
+	 * @return 終了する場合、<code>true</code>
+	 */
+	public boolean isStopped() {
+		if (null != parent) {
+			return below >= maxErrors;
+		}
+		return stopped;
+	}
+
+	/**
+	 * 以降に追加するエラーのキーを設定する。
+	 * 
+	 * @param key キー
+	 */
+	public void setKey(final int key) {
+		this.key = key;
+		below = 0;
+		for (int i = 0; i < results.size(); i++) {
+			if (keys[i] <= key) {
+				below++;
+			}
+		}
+	}
+
+	/**
+	 * 以降のバリデーションが結果に影響しないか判断する。
+	 * <p>
+	 * キー順に保持する場合、現在のキーで終了しており、 このオブジェクトと親のオブジェクトで現在のキーより小さいキーがすべて入力済みの場合に
+	 * <code>true</code> を返す。 この場合、呼び出し元は入力の残りを読み飛ばさずに終了できる。
+	 * </p>
+	 * 
+	 * @return 影響しない場合、<code>true</code>
+	 */
+	public boolean isFinished() {
+		return isStopped() && isSettled();
+	}
+
+	/**
+	 * 現在のキーより小さいキーがすべて入力済みか判断する。
+	 * 
+	 * @return 入力済みの場合、<code>true</code>
+	 */
+	private boolean isSettled() {
+		if (null == parent) {
+			return true;
+		}
+		for (int i = 0; i < key && i < present.length; i++) {
+			if (!present[i]) {
+				return false;
+			}
+		}
+		return parent.isSettled();
+	}
+
+	/**
+	 * 保持したエラーをキーの昇順に親へ追加する。
+	 * <p>
+	 * キーが等しいエラーは追加された順を保つ。 親が終了した時点で残りのエラーは破棄する。
+	 * </p>
+	 */
+	public void flush() {
+		sort(0, keys);
+		for (ValidationResult result : results) {
+			if (!parent.add(result)) {
+				break;
+			}
+		}
+		results.clear();
+	}
+
+	/**
+	 * POJOのバリデーションを開始する。
+	 * 
+	 * @param bean POJO
+	 * @return 開始した場合、<code>true</code>。同じPOJOのバリデーション中(循環参照)の場合、<code>false</code>
+	 */
+	public boolean enter(final Object bean) {
+		if (null == beans) {
+			beans = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		}
+		return beans.add(bean);
+	}
+
+	/**
+	 * POJOのバリデーションを終了する。
+	 * 
+	 * @param bean POJO
+	 */
+	public void exit(final Object bean) {
+		beans.remove(bean);
+	}
+
+	/**
+	 * バリデーション中のPOJO一覧を取得する。
+	 * 
+	 * @return POJO一覧
+	 */
+	public List<Object> getBeans() {
+		if (null == beans) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<Object>(beans);
+	}
+
+	/**
+	 * 他のスレッドでバリデーション中のPOJOを引き継ぐ。
+	 * 
+	 * @param beans POJO一覧
+	 */
+	public void enterAll(final Collection<?> beans) {
+		for (Object bean : beans) {
+			enter(bean);
+		}
+	}
+
+	/**
+	 * 収集したエラー数を取得する。
+	 * 
+	 * @return エラー数
+	 */
+	public int size() {
+		return results.size();
+	}
+
+	/**
+	 * 位置が未設定のエラーに入力中の位置を設定する。
+	 * 
+	 * @param from 対象とするエラーの開始位置
+	 * @param offset 入力中の位置
+	 */
+	public void locate(final int from, final long offset) {
+		for (int i = from; i < results.size(); i++) {
+			ValidationResult result = results.get(i);
+			if (-1 == result.getOffset()) {
+				result.setOffset(offset);
+			}
+		}
+	}
+
+	/**
+	 * 開始位置以降のエラーをキーの昇順に並び替える。
+	 * <p>
+	 * キーが等しいエラーは追加された順を保つ。
+	 * </p>
+	 * 
+	 * @param from 対象とするエラーの開始位置
+	 * @param keys 開始位置以降のエラー毎のキー
+	 */
+	private void sort(final int from, final int[] keys) {
+		final int size = results.size() - from;
+		boolean sorted = true;
+		for (int i = 1; i < size && sorted; i++) {
+			sorted = (keys[i - 1] <= keys[i]);
+		}
+		if (sorted) {
+			return;
+		}
+
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(final Integer o1, final Integer o2) {
+				return keys[o1] - keys[o2];
+			}
+		});
+		List<ValidationResult> copy = new ArrayList<ValidationResult>(results.subList(from, results.size()));
+		for (int i = 0; i < size; i++) {
+			results.set(from + i, copy.get(order[i]));
+		}
+	}
+
+	/**
+	 * エラー一覧を取得する。
+	 * 
+	 * @return エラー一覧
+	 */
+	public List<ValidationResult> getResults() {
+		return results;
+	}
+}
@@ -17,15 +17,29 @@
  */
 package org.azkfw.validator;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.azkfw.validator.annotation.CustomValidate;
 import org.azkfw.validator.annotation.Maximum;
@@ -34,19 +48,29 @@ import org.azkfw.validator.annotation.NameBindLabel;
 import org.azkfw.validator.annotation.NameBindValue;
 import org.azkfw.validator.annotation.NotEmpty;
 import org.azkfw.validator.annotation.NotNull;
+import org.azkfw.validator.annotation.NotThreadSafe;
 import org.azkfw.validator.annotation.Pattern;
 import org.azkfw.validator.annotation.Range;
 import org.azkfw.validator.annotation.Required;
 import org.azkfw.validator.bundle.LabelBundle;
 import org.azkfw.validator.bundle.MessageBundle;
+import org.azkfw.validator.metrics.NoOpValidationMetrics;
+import org.azkfw.validator.metrics.ValidationMetrics;
+import org.azkfw.validator.validation.InitializableValidation;
 import org.azkfw.validator.validation.MaximumValidation;
 import org.azkfw.validator.validation.MinimumValidation;
 import org.azkfw.validator.validation.NotEmptyValidation;
 import org.azkfw.validator.validation.NotNullValidation;
+import org.azkfw.validator.validation.NumericValidation;
 import org.azkfw.validator.validation.PatternValidation;
 import org.azkfw.validator.validation.RangeValidation;
 import org.azkfw.validator.validation.RequiredValidation;
 import org.azkfw.validator.validation.Validation;
+import org.azkfw.validator.validation.ValidationContext;
+import org.azkfw.validator.validation.ValidationPath;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
 import org.codehaus.jackson.annotate.JsonProperty;
 
 import com.google.gson.Gson;
@@ -61,158 +85,1306 @@ import com.google.gson.JsonSyntaxException;
  */
 public class Validator {
 
+	/** デフォルトの最大エラー数 */
+	public static final int DEFAULT_MAX_ERRORS = 1000;
+
+	/** デフォルトの実行順の学習のサンプリング間隔 */
+	public static final int DEFAULT_RULE_SAMPLE_INTERVAL = 16;
+
+	/** JSON形式エラーのメッセージ */
+	private static final String NO_JSON_FORMAT = "Validate error.[No json format]";
+
 	private MessageBundle messages;
 	private LabelBundle labels;
 
+	/** 実行順の比較 */
+	static final Comparator<Validation> ORDER = new Comparator<Validation>() {
+		@Override
+		public int compare(final Validation o1, final Validation o2) {
+			return o1.order() - o2.order();
+		}
+	};
+
+	/** 引数なしのコンストラクタでユーザ定義バリデーションを生成するファクトリ */
+	private static final CustomValidationFactory DEFAULT_CUSTOM_VALIDATION_FACTORY = new CustomValidationFactory() {
+		@Override
+		public Validation create(final Class<? extends Validation> clazz) throws Exception {
+			return clazz.getDeclaredConstructor().newInstance();
+		}
+	};
+
+	/** ロケール */
+	private final Locale locale;
+
+	/** クラス毎のバリデーション計画 */
+	private final ConcurrentMap<Class<?>, ClassValidationPlan> plans;
+
+	private final Gson gson;
+	private final JsonFactory factory;
+	private final StreamValidator streamValidator;
+
+	/** モード */
+	private ValidationMode mode;
+
+	/** 最大エラー数 */
+	private int maxErrors;
+
+	/** 並列バリデーションを行うリストの要素数 */
+	private int parallelThreshold;
+
+	/** 並列バリデーションで使用するプール */
+	private ForkJoinPool forkJoinPool;
+
+	/** 評価方式 */
+	private ValidationEngine engine;
+
+	/** 計測 */
+	private ValidationMetrics metrics;
+
+	/** 計測の有無 */
+	private boolean metricsEnabled;
+
+	/** ユーザ定義バリデーションのファクトリ */
+	private CustomValidationFactory customValidationFactory;
+
+	/** 実行順の決定方式 */
+	private RuleOrdering ruleOrdering;
+
+	/** 実行順の学習のサンプリング間隔 */
+	private int ruleSampleInterval;
+
 	public Validator() {
-		labels = new LabelBundle();
-		messages = new MessageBundle();
+		this((Locale) null);
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param locale メッセージのロケール。<code>null</code>の場合、デフォルトロケール
+	 */
+	public Validator(final Locale locale) {
+		this.locale = locale;
+		labels = new LabelBundle(locale);
+		messages = new MessageBundle(locale);
+		plans = new ConcurrentHashMap<Class<?>, ClassValidationPlan>();
+		gson = new Gson();
+		factory = new JsonFactory();
+		streamValidator = new StreamValidator(this);
+		mode = ValidationMode.COLLECT_ALL;
+		maxErrors = DEFAULT_MAX_ERRORS;
+		parallelThreshold = 0;
+		forkJoinPool = null;
+		engine = ValidationEngine.INTERPRETED;
+		metrics = NoOpValidationMetrics.INSTANCE;
+		metricsEnabled = false;
+		customValidationFactory = DEFAULT_CUSTOM_VALIDATION_FACTORY;
+		ruleOrdering = RuleOrdering.DECLARED;
+		ruleSampleInterval = DEFAULT_RULE_SAMPLE_INTERVAL;
+	}
+
+	/**
+	 * ウォームアップ用のコンストラクタ
+	 * <p>
+	 * バリデーション計画、バンドル、設定を共有し、計測と実行順の学習を行わない。
+	 * </p>
+	 * 
+	 * @param base 共有元
+	 */
+	private Validator(final Validator base) {
+		this.locale = base.locale;
+		labels = base.labels;
+		messages = base.messages;
+		plans = base.plans;
+		gson = base.gson;
+		factory = base.factory;
+		streamValidator = new StreamValidator(this);
+		mode = base.mode;
+		maxErrors = base.maxErrors;
+		parallelThreshold = base.parallelThreshold;
+		forkJoinPool = base.forkJoinPool;
+		engine = base.engine;
+		metrics = NoOpValidationMetrics.INSTANCE;
+		metricsEnabled = false;
+		customValidationFactory = base.customValidationFactory;
+		ruleOrdering = RuleOrdering.DECLARED;
+		ruleSampleInterval = base.ruleSampleInterval;
+	}
+
+	/**
+	 * ウォームアップ用のバリデータを生成する。
+	 * <p>
+	 * 合成データによるバリデーションで、メトリクスや学習した実行順が変化しないようにする為に使用する。
+	 * </p>
+	 * 
+	 * @return バリデータ
+	 */
+	Validator warmupView() {
+		return new Validator(this);
+	}
+
+	/**
+	 * モードを設定する。
+	 * 
+	 * @param mode モード
+	 */
+	public void setMode(final ValidationMode mode) {
+		this.mode = mode;
+	}
+
+	/**
+	 * モードを取得する。
+	 * 
+	 * @return モード
+	 */
+	public ValidationMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * {@link ValidationMode#COLLECT_ALL} で収集する最大エラー数を設定する。
+	 * <p>
+	 * 最大エラー数に達した時点でバリデーションを終了する。
+	 * </p>
+	 * 
+	 * @param maxErrors 最大エラー数
+	 */
+	public void setMaxErrors(final int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	/**
+	 * 最大エラー数を取得する。
+	 * 
+	 * @return 最大エラー数
+	 */
+	public int getMaxErrors() {
+		return maxErrors;
+	}
+
+	/**
+	 * リストを並列にバリデーションする要素数を設定する。
+	 * <p>
+	 * 要素数がこの値以上のリストは要素を分割して {@link ForkJoinPool} で並列にバリデーションする。 結果はインデックス順に結合される。
+	 * <code>0</code>以下の場合、並列バリデーションは行わない。
+	 * </p>
+	 * 
+	 * @param threshold 要素数
+	 */
+	public void setParallelThreshold(final int threshold) {
+		this.parallelThreshold = threshold;
+	}
+
+	/**
+	 * リストを並列にバリデーションする要素数を取得する。
+	 * 
+	 * @return 要素数
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * 並列バリデーションで使用するプールを設定する。
+	 * 
+	 * @param pool プール。<code>null</code>の場合、{@link ForkJoinPool#commonPool()} を使用する
+	 */
+	public void setForkJoinPool(final ForkJoinPool pool) {
+		this.forkJoinPool = pool;
+	}
+
+	/**
+	 * フィールドのバリデーションの評価方式を設定する。
+	 * 
+	 * @param engine 評価方式
+	 */
+	public void setEngine(final ValidationEngine engine) {
+		this.engine = engine;
+	}
+
+	/**
+	 * フィールドのバリデーションの評価方式を取得する。
+	 * 
+	 * @return 評価方式
+	 */
+	public ValidationEngine getEngine() {
+		return engine;
+	}
+
+	/**
+	 * 計測値を受け取るメトリクスを設定する。
+	 * <p>
+	 * {@link NoOpValidationMetrics} 以外を設定した場合、ドキュメント、オブジェクト、バリデーション毎に時間を計測する。
+	 * バリデーション毎の計測値を得る為、計測中は {@link ValidationEngine#COMPILED} でも逐次評価を行う。
+	 * </p>
+	 * 
+	 * @param metrics メトリクス。<code>null</code>の場合、計測しない
+	 */
+	public void setMetrics(final ValidationMetrics metrics) {
+		this.metrics = (null != metrics) ? metrics : NoOpValidationMetrics.INSTANCE;
+		this.metricsEnabled = (NoOpValidationMetrics.INSTANCE != this.metrics);
+	}
+
+	/**
+	 * 計測値を受け取るメトリクスを取得する。
+	 * 
+	 * @return メトリクス
+	 */
+	public ValidationMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * クラスを事前に登録する。
+	 * <p>
+	 * バリデーション計画を構築し、リストの要素型とフィールドのクラスも再帰的に登録する。
+	 * 詳細な設定は {@link ValidatorWarmup} を使用する。
+	 * </p>
+	 * 
+	 * @param classes クラス
+	 * @return ウォームアップ結果
+	 * @throws Exception バリデーション計画の構築に失敗した場合
+	 */
+	public WarmupReport register(final Class<?>... classes) throws Exception {
+		return new ValidatorWarmup(this).register(classes);
+	}
+
+	/**
+	 * パッケージ内のバリデーションアノテーションを持つクラスを事前に登録する。
+	 * <p>
+	 * サブパッケージも対象とする。
+	 * </p>
+	 * 
+	 * @param packageNames パッケージ名
+	 * @return ウォームアップ結果
+	 * @throws Exception クラスの検索またはバリデーション計画の構築に失敗した場合
+	 */
+	public WarmupReport registerPackage(final String... packageNames) throws Exception {
+		return new ValidatorWarmup(this).registerPackage(packageNames);
+	}
+
+	/**
+	 * ユーザ定義バリデーションのファクトリを設定する。
+	 * <p>
+	 * バリデーション計画の構築時に使用する為、バリデーションを行う前に設定する。
+	 * 構築済みの計画のインスタンスは置き換えられない。
+	 * </p>
+	 * 
+	 * @param factory ファクトリ。<code>null</code>の場合、引数なしのコンストラクタで生成する
+	 */
+	public void setCustomValidationFactory(final CustomValidationFactory factory) {
+		this.customValidationFactory = (null != factory) ? factory : DEFAULT_CUSTOM_VALIDATION_FACTORY;
+	}
+
+	/**
+	 * ユーザ定義バリデーションのファクトリを取得する。
+	 * 
+	 * @return ファクトリ
+	 */
+	public CustomValidationFactory getCustomValidationFactory() {
+		return customValidationFactory;
+	}
+
+	/**
+	 * フィールドのバリデーションの実行順の決定方式を設定する。
+	 * <p>
+	 * {@link RuleOrdering#DECLARED} 以外の場合、{@link org.azkfw.validator.annotation.OrderIndependent}
+	 * が付与されたフィールドは学習した順で逐次評価を行う。 学習結果は {@link #getRuleOrderReport()} で取得する。
+	 * </p>
+	 * 
+	 * @param ordering 決定方式。<code>null</code>の場合、{@link RuleOrdering#DECLARED}
+	 */
+	public void setRuleOrdering(final RuleOrdering ordering) {
+		this.ruleOrdering = (null != ordering) ? ordering : RuleOrdering.DECLARED;
+	}
+
+	/**
+	 * フィールドのバリデーションの実行順の決定方式を取得する。
+	 * 
+	 * @return 決定方式
+	 */
+	public RuleOrdering getRuleOrdering() {
+		return ruleOrdering;
 	}
 
+	/**
+	 * 実行順の学習のサンプリング間隔を設定する。
+	 * <p>
+	 * フィールド毎の呼び出し平均 <code>interval</code> 回に一回、すべてのバリデーションを実行して結果を記録する。
+	 * サンプリングする呼び出しはスレッド毎の乱数で選ぶ。 {@link RuleOrdering#DETERMINISTIC} の場合は <code>interval</code>
+	 * 回毎に選ぶ。
+	 * </p>
+	 * 
+	 * @param interval サンプリング間隔。<code>1</code>の場合、すべての呼び出しをサンプリングする
+	 */
+	public void setRuleSampleInterval(final int interval) {
+		if (1 > interval) {
+			throw new IllegalArgumentException("interval must be positive: " + interval);
+		}
+		this.ruleSampleInterval = interval;
+	}
+
+	/**
+	 * 実行順の学習のサンプリング間隔を取得する。
+	 * 
+	 * @return サンプリング間隔
+	 */
+	public int getRuleSampleInterval() {
+		return ruleSampleInterval;
+	}
+
+	/**
+	 * 構築済みのバリデーション計画から学習した実行順を取得する。
+	 * 
+	 * @return 実行順
+	 */
+	public RuleOrderReport getRuleOrderReport() {
+		RuleOrderReport report = new RuleOrderReport();
+		for (ClassValidationPlan plan : plans.values()) {
+			for (FieldValidationPlan field : plan.fields()) {
+				if (null != field.adaptiveOrder()) {
+					report.add(plan.getType(), field);
+				}
+			}
+		}
+		return report;
+	}
+
+	/**
+	 * JSONをバリデーションする。
+	 * <p>
+	 * JSONの形式が不正な場合は JSON形式エラーを返す。
+	 * </p>
+	 * 
+	 * @param data JSON
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 * @throws IllegalStateException バリデーション計画の構築またはバリデーションに失敗した場合
+	 */
 	public List<ValidationResult> validate(final String data, final Class<?> clazz) {
-		List<ValidationResult> result = new ArrayList<ValidationResult>();
-		Gson gson = new Gson();
+		final long start = startTimer();
+		ValidationResultCollector collector = createCollector();
 		try {
 			Object obj = gson.fromJson(data, Object.class);
-			doValidate(obj, clazz);
+			doValidate(obj, clazz, collector);
 		} catch (JsonSyntaxException ex) {
-			System.out.println("Validate error.[No json format]");
+			collector.add(ValidationResult.error(NO_JSON_FORMAT));
+		} catch (RuntimeException ex) {
+			throw ex;
 		} catch (Exception ex) {
-			ex.printStackTrace();
+			throw new IllegalStateException(ex);
 		}
-		return result;
+		return complete(clazz, start, collector);
 	}
 
+	/**
+	 * 解析済みのデータをバリデーションする。
+	 * 
+	 * @param data データ
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 * @throws IllegalStateException バリデーション計画の構築またはバリデーションに失敗した場合
+	 */
 	public List<ValidationResult> validate(final Object data, final Class<?> clazz) {
-		List<ValidationResult> result = new ArrayList<ValidationResult>();
+		final long start = startTimer();
+		ValidationResultCollector collector = createCollector();
 		try {
-			doValidate(data, clazz);
+			doValidate(data, clazz, collector);
 		} catch (JsonSyntaxException ex) {
-			System.out.println("Validate error.[No json format]");
+			collector.add(ValidationResult.error(NO_JSON_FORMAT));
+		} catch (RuntimeException ex) {
+			throw ex;
 		} catch (Exception ex) {
-			ex.printStackTrace();
+			throw new IllegalStateException(ex);
+		}
+		return complete(clazz, start, collector);
+	}
+
+	/**
+	 * JSONをストリーミングでバリデーションする。
+	 * <p>
+	 * ドキュメント全体を読み込まずにトークン単位でバリデーションを行う。
+	 * </p>
+	 * 
+	 * @param reader JSONリーダー
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 * @throws UncheckedIOException 入出力エラーが発生した場合
+	 */
+	public List<ValidationResult> validate(final Reader reader, final Class<?> clazz) {
+		JsonParser parser = null;
+		try {
+			parser = factory.createJsonParser(reader);
+			return validate(parser, clazz);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} finally {
+			close(parser);
+		}
+	}
+
+	/**
+	 * JSONのバイト列をストリーミングでバリデーションする。
+	 * <p>
+	 * 文字列に変換せずにバイト列から直接トークン単位でバリデーションを行う。 文字コードは UTF-8/UTF-16/UTF-32 を自動判別する。
+	 * </p>
+	 * 
+	 * @param stream JSON入力ストリーム
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 * @throws UncheckedIOException 入出力エラーが発生した場合
+	 */
+	public List<ValidationResult> validate(final InputStream stream, final Class<?> clazz) {
+		JsonParser parser = null;
+		try {
+			parser = factory.createJsonParser(stream);
+			return validate(parser, clazz);
+		} catch (JsonParseException ex) {
+			return noJsonFormatResults(ex);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} finally {
+			close(parser);
+		}
+	}
+
+	/**
+	 * JSONのバイト列をバリデーションする。
+	 * 
+	 * @param data JSONバイト列
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 * @see #validate(InputStream, Class)
+	 */
+	public List<ValidationResult> validate(final byte[] data, final Class<?> clazz) {
+		return validate(data, 0, data.length, clazz);
+	}
+
+	/**
+	 * JSONのバイト列をバリデーションする。
+	 * 
+	 * @param data JSONバイト列
+	 * @param offset 開始位置
+	 * @param length 長さ
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 * @see #validate(InputStream, Class)
+	 */
+	public List<ValidationResult> validate(final byte[] data, final int offset, final int length,
+			final Class<?> clazz) {
+		JsonParser parser = null;
+		try {
+			parser = factory.createJsonParser(data, offset, length);
+			return validate(parser, clazz);
+		} catch (JsonParseException ex) {
+			return noJsonFormatResults(ex);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} finally {
+			close(parser);
+		}
+	}
+
+	/**
+	 * JSONのバッファをバリデーションする。
+	 * <p>
+	 * バッファの位置から上限までをバリデーションする。 バッファの位置は変更しない。
+	 * ヒープバッファは配列を直接、ダイレクトバッファはコピーせずにストリームとして読み込む。
+	 * </p>
+	 * 
+	 * @param buffer JSONバッファ
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 * @throws UncheckedIOException 入出力エラーが発生した場合
+	 */
+	public List<ValidationResult> validate(final ByteBuffer buffer, final Class<?> clazz) {
+		if (buffer.hasArray()) {
+			return validate(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), clazz);
+		}
+		return validate(new ByteBufferInputStream(buffer), clazz);
+	}
+
+	/**
+	 * JSONパーサのトークンから直接バリデーションする。
+	 * <p>
+	 * JSONの形式が不正な場合、または値が存在しない場合は JSON形式エラーを返す。
+	 * </p>
+	 * 
+	 * @param parser JSONパーサ
+	 * @param clazz バリデーションクラス
+	 * @return バリデーション結果
+	 * @throws UncheckedIOException 入出力エラーが発生した場合
+	 * @throws IllegalStateException バリデーション計画の構築に失敗した場合
+	 */
+	public List<ValidationResult> validate(final JsonParser parser, final Class<?> clazz) {
+		final long start = startTimer();
+		ValidationResultCollector collector = createCollector();
+		try {
+			streamValidator.validate(parser, clazz, collector);
+		} catch (JsonParseException ex) {
+			collector.add(noJsonFormat(ex));
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		} catch (RuntimeException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+		return complete(clazz, start, collector);
+	}
+
+	/**
+	 * 分割された配列の要素をストリーミングでバリデーションする。
+	 * 
+	 * @param parser JSONパーサ
+	 * @param clazz 要素のバリデーションクラス
+	 * @param firstIndex 開始インデックス
+	 * @param collector エラー収集
+	 * @throws IOException 入出力エラーが発生した場合
+	 */
+	void validateElements(final JsonParser parser, final Class<?> clazz, final int firstIndex,
+			final ValidationResultCollector collector) throws IOException {
+		try {
+			streamValidator.validateElements(parser, clazz, firstIndex, collector);
+		} catch (JsonParseException ex) {
+			collector.add(noJsonFormat(ex));
+		} catch (IOException ex) {
+			throw ex;
+		} catch (RuntimeException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * 計測の開始時刻を取得する。
+	 * 
+	 * @return 開始時刻(ナノ秒)。計測しない場合、<code>0</code>
+	 */
+	long startTimer() {
+		return metricsEnabled ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * ドキュメントのバリデーションを終了する。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @param start 開始時刻
+	 * @param collector エラー収集
+	 * @return バリデーション結果
+	 */
+	List<ValidationResult> complete(final Class<?> clazz, final long start, final ValidationResultCollector collector) {
+		if (metricsEnabled) {
+			metrics.onDocument(clazz, System.nanoTime() - start, collector.size());
+		}
+		return collector.getResults();
+	}
+
+	/**
+	 * オブジェクトのバリデーションの計測値を記録する。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @param start 開始時刻
+	 */
+	void recordObject(final Class<?> clazz, final long start) {
+		if (metricsEnabled) {
+			metrics.onObject(clazz, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * 並列バリデーションで使用するプールを取得する。
+	 * 
+	 * @return プール
+	 */
+	ForkJoinPool getForkJoinPool() {
+		return (null != forkJoinPool) ? forkJoinPool : ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * JSON形式エラーのみのバリデーション結果を生成する。
+	 * 
+	 * @param ex 例外
+	 * @return バリデーション結果
+	 */
+	private static List<ValidationResult> noJsonFormatResults(final JsonParseException ex) {
+		List<ValidationResult> results = new ArrayList<ValidationResult>(1);
+		results.add(noJsonFormat(ex));
+		return results;
+	}
+
+	/**
+	 * JSON形式エラーを生成する。
+	 * 
+	 * @param ex 例外
+	 * @return エラー
+	 */
+	private static ValidationResult noJsonFormat(final JsonParseException ex) {
+		ValidationResult result = ValidationResult.error(NO_JSON_FORMAT);
+		if (null != ex.getLocation()) {
+			result.setOffset(StreamValidator.offset(ex.getLocation()));
 		}
 		return result;
 	}
 
+	/**
+	 * パーサを閉じる。
+	 * 
+	 * @param parser パーサ
+	 */
+	private static void close(final JsonParser parser) {
+		if (null != parser) {
+			try {
+				parser.close();
+			} catch (IOException ex) {
+				// 読み込みは完了している為、結果には影響しない
+			}
+		}
+	}
+
+	/**
+	 * JSONファクトリを取得する。
+	 * 
+	 * @return JSONファクトリ
+	 */
+	JsonFactory getJsonFactory() {
+		return factory;
+	}
+
+	/**
+	 * 1回のバリデーション用のエラー収集を生成する。
+	 * 
+	 * @return エラー収集
+	 */
+	ValidationResultCollector createCollector() {
+		return new ValidationResultCollector(mode, maxErrors);
+	}
+
 	/**
 	 * バリデーションを行う。
 	 * 
 	 * @param data データ
 	 * @param clazz バリデーションクラス
+	 * @param collector エラー収集
 	 */
-	private void doValidate(final Object data, final Class<?> clazz) throws Exception {
+	private void doValidate(final Object data, final Class<?> clazz, final ValidationResultCollector collector)
+			throws Exception {
 		if (null == data) {
 
 		} else if (data instanceof Map) {
-			checkObject((Map<?, ?>) data, clazz, "");
+			checkObject((Map<?, ?>) data, clazz, new ValidationPath(), collector);
 		} else if (data instanceof List) {
-			checkList((List<?>) data, clazz, "");
+			checkList((List<?>) data, TypeModel.object(clazz), new ValidationPath(), collector);
+		} else if (isBean(data) && clazz.isInstance(data)) {
+			checkBean(data, clazz, new ValidationPath(), collector);
 		}
 	}
 
-	private void checkList(final List<?> data, final Class<?> clazz, final String path) throws Exception {
-		for (int i = 0; i < data.size(); i++) {
-			Object value = data.get(i);
-
-			if (null == value) {
-
-			} else if (value instanceof String) {
+	/**
+	 * 値の子要素のバリデーションを型のモデルに従って行う。
+	 * 
+	 * @param value 値
+	 * @param model 型のモデル
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	void checkValue(final Object value, final TypeModel model, final ValidationPath path,
+			final ValidationResultCollector collector) throws Exception {
+		if (null == value || !model.isStructured()) {
+			return;
+		}
 
-			} else if (value instanceof Double) {
+		switch (model.getKind()) {
+		case OBJECT:
+			if (value instanceof Map) {
+				checkObject((Map<?, ?>) value, model.getType(), path, collector);
+			} else if (isBean(value) && model.getType().isInstance(value) && isTarget(model.getType())) {
+				checkBean(value, model.getType(), path, collector);
+			}
+			break;
+		case LIST:
+			if (value instanceof List) {
+				checkList((List<?>) value, model.getElement(), path, collector);
+			} else if (value instanceof Object[]) {
+				checkList(Arrays.asList((Object[]) value), model.getElement(), path, collector);
+			} else if (value instanceof Collection) {
+				checkList(new ArrayList<Object>((Collection<?>) value), model.getElement(), path, collector);
+			}
+			break;
+		case MAP:
+			if (value instanceof Map) {
+				for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+					if (collector.isStopped()) {
+						break;
+					}
+					path.push(String.valueOf(entry.getKey()));
+					checkValue(entry.getValue(), model.getElement(), path, collector);
+					path.pop();
+				}
+			}
+			break;
+		default:
+			break;
+		}
+	}
 
-			} else if (value instanceof Map) {
-				checkObject((Map<?, ?>) value, clazz, path + "[" + i + "]");
-			} else if (value instanceof List) {
+	/**
+	 * リストの要素のバリデーションを行う。
+	 * 
+	 * @param data リスト
+	 * @param element 要素の型のモデル
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	void checkList(final List<?> data, final TypeModel element, final ValidationPath path,
+			final ValidationResultCollector collector) throws Exception {
+		if (!element.isStructured()) {
+			return;
+		}
+		if (0 < parallelThreshold && data.size() >= parallelThreshold) {
+			checkListParallel(data, element, path, collector);
+			return;
+		}
 
+		for (int i = 0; i < data.size() && !collector.isStopped(); i++) {
+			Object value = data.get(i);
+			if (null != value) {
+				path.push(i);
+				checkValue(value, element, path, collector);
+				path.pop();
 			}
 		}
 	}
 
-	private void checkObject(final Map<?, ?> data, final Class<?> clazz, final String path) throws Exception {
-		if (null != clazz.getSuperclass()) {
-			checkObject(data, clazz.getSuperclass(), path);
+	/**
+	 * リストの要素を並列にバリデーションする。
+	 * 
+	 * @param data リスト
+	 * @param element 要素の型のモデル
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	private void checkListParallel(final List<?> data, final TypeModel element, final ValidationPath path,
+			final ValidationResultCollector collector) {
+		if (collector.isStopped()) {
+			return;
 		}
 
-		final Field[] fields = clazz.getDeclaredFields();
-		for (final Field field : fields) {
+		ForkJoinPool pool = getForkJoinPool();
+		int leafSize = Math.max(1, Math.min(parallelThreshold, data.size() / (pool.getParallelism() * 4)));
 
-			String name = field.getName();
-			final JsonProperty jp = (JsonProperty) field.getAnnotation(JsonProperty.class);
-			if (null != jp) {
-				name = jp.value();
+		ListValidationTask task = new ListValidationTask(this, data, element, path.copy(), collector.getBeans(), leafSize,
+				collector.remaining());
+		List<ValidationResult> results = ForkJoinTask.inForkJoinPool() ? task.invoke() : pool.invoke(task);
+		for (ValidationResult result : results) {
+			if (!collector.add(result)) {
+				break;
 			}
-			final String myPath = path + "/" + name;
+		}
+	}
+
+	void checkObject(final Map<?, ?> data, final Class<?> clazz, final ValidationPath path,
+			final ValidationResultCollector collector) throws Exception {
+		final long start = startTimer();
+		final ClassValidationPlan plan = getPlan(clazz);
+		for (final FieldValidationPlan field : plan.fields()) {
+			if (collector.isStopped()) {
+				break;
+			}
+
+			final String name = field.getName();
 			final Object value = data.get(name);
 
-			boolean validationSuccess = true;
-			List<Validation> validations = getFieldValidations(field);
-			if (!validations.isEmpty()) {
-				Map<String, Object> keywords = new HashMap<String, Object>();
-				keywords.put("name", name);
-				keywords.put("value", value);
-				keywords.put("path", myPath);
-
-				for (Validation validation : validations) {
-					if (validation instanceof RequiredValidation) {
-						if (!data.containsKey(name)) {
-							ValidationResult result = validation.validate(value, keywords);
-							System.out.println(result.getMessage());
-							validationSuccess = false;
-							break;
+			path.push(name);
+			if (checkField(field, value, data.containsKey(name), path, collector)) {
+				checkValue(value, field.getModel(), path, collector);
+			}
+			path.pop();
+		}
+		recordObject(clazz, start);
+	}
+
+	/**
+	 * POJOのバリデーションを行う。
+	 * <p>
+	 * フィールド値は計画に保持した {@link java.lang.invoke.MethodHandle} で取得する。 <code>null</code>
+	 * のフィールドは存在しないものとして扱う。 {@link Number} は型を変換せずにバリデーションする。
+	 * 子要素のPOJOは {@link #isTarget(Class)} の場合のみバリデーションし、バリデーション中のPOJOへの参照(循環参照)は無視する。
+	 * </p>
+	 * 
+	 * @param data POJO
+	 * @param clazz バリデーションクラス
+	 * @param path パス
+	 * @param collector エラー収集
+	 */
+	void checkBean(final Object data, final Class<?> clazz, final ValidationPath path,
+			final ValidationResultCollector collector) throws Exception {
+		if (!collector.enter(data)) {
+			return;
+		}
+
+		final long start = startTimer();
+		final ClassValidationPlan plan = getPlan(clazz);
+		try {
+			for (final FieldValidationPlan field : plan.checkedFields()) {
+				if (collector.isStopped()) {
+					break;
+				}
+				if (null == field.getter()) {
+					if (Modifier.isStatic(field.getField().getModifiers())) {
+						continue;
+					}
+					throw new IllegalStateException("Field is not accessible.[" + field.getField() + "]");
+				}
+
+				path.push(field.getName());
+				try {
+					if (null != field.numericGetter()) {
+						if (field.isIntegral()) {
+							checkNumber(field, (long) field.numericGetter().invokeExact(data), path, collector);
+						} else {
+							checkNumber(field, (double) field.numericGetter().invokeExact(data), path, collector);
 						}
 					} else {
-						ValidationResult result = validation.validate(value, keywords);
-						if (!result.isResult()) {
-							System.out.println(result.getMessage());
-							validationSuccess = false;
-							break;
+						Object value = (Object) field.getter().invokeExact(data);
+						if (checkField(field, value, null != value, path, collector)) {
+							checkValue(value, field.getModel(), path, collector);
 						}
 					}
+				} catch (Exception ex) {
+					throw ex;
+				} catch (Throwable ex) {
+					throw new IllegalStateException(ex);
 				}
+				path.pop();
 			}
+		} finally {
+			collector.exit(data);
+		}
+		recordObject(clazz, start);
+	}
 
-			if (validationSuccess) {
-				if (value instanceof Map) {
-					checkObject((Map<?, ?>) value, field.getType(), myPath);
-				} else if (value instanceof List) {
-					Type type = field.getGenericType();
-					if (null != type) {
-						if (type instanceof ParameterizedType) {
-							ParameterizedType pType = (ParameterizedType) type;
-							Type t = pType.getActualTypeArguments()[0];
-							try {
-								Class<?> cls = Class.forName(t.toString().split(" ")[1]);
-								checkList((List<?>) value, cls, myPath);
-							} catch (Exception ex) {
-								ex.printStackTrace();
-							}
-						}
+	/**
+	 * 数値のバリデーションを行う。
+	 * <p>
+	 * エラーの場合のみ値をボクシングしてバリデーション結果を生成する。
+	 * </p>
+	 * 
+	 * @param field フィールド計画
+	 * @param value 値
+	 * @param path パス
+	 * @param collector エラー収集
+	 * @return すべてのバリデーションに成功した場合、<code>true</code>
+	 * @see FieldValidationPlan#isNumeric()
+	 */
+	boolean checkNumber(final FieldValidationPlan field, final double value, final ValidationPath path,
+			final ValidationResultCollector collector) {
+		final AdaptiveRuleOrder order = adaptiveOrder(field);
+		if (sample(order)) {
+			return sampleField(field, order, Double.valueOf(value), true, path, collector);
+		}
+		final Validation[] validations = (null != order) ? order.validations() : field.validations();
+		for (int i = 0; i < validations.length; i++) {
+			boolean valid;
+			if (metricsEnabled) {
+				final long start = System.nanoTime();
+				valid = ((NumericValidation) validations[i]).isValid(value);
+				metrics.onRule(validations[i], System.nanoTime() - start, valid);
+			} else {
+				valid = ((NumericValidation) validations[i]).isValid(value);
+			}
+			if (!valid) {
+				return numberError(field, validations[i], Double.valueOf(value), path, collector);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 整数のバリデーションを行う。
+	 * <p>
+	 * エラーの場合のみ値をボクシングしてバリデーション結果を生成する。
+	 * </p>
+	 * 
+	 * @param field フィールド計画
+	 * @param value 値
+	 * @param path パス
+	 * @param collector エラー収集
+	 * @return すべてのバリデーションに成功した場合、<code>true</code>
+	 * @see FieldValidationPlan#isNumeric()
+	 */
+	boolean checkNumber(final FieldValidationPlan field, final long value, final ValidationPath path,
+			final ValidationResultCollector collector) {
+		final AdaptiveRuleOrder order = adaptiveOrder(field);
+		if (sample(order)) {
+			return sampleField(field, order, Long.valueOf(value), true, path, collector);
+		}
+		final Validation[] validations = (null != order) ? order.validations() : field.validations();
+		for (int i = 0; i < validations.length; i++) {
+			boolean valid;
+			if (metricsEnabled) {
+				final long start = System.nanoTime();
+				valid = ((NumericValidation) validations[i]).isValid(value);
+				metrics.onRule(validations[i], System.nanoTime() - start, valid);
+			} else {
+				valid = ((NumericValidation) validations[i]).isValid(value);
+			}
+			if (!valid) {
+				return numberError(field, validations[i], Long.valueOf(value), path, collector);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 十進数のバリデーションを行う。
+	 * 
+	 * @param field フィールド計画
+	 * @param value 値
+	 * @param path パス
+	 * @param collector エラー収集
+	 * @return すべてのバリデーションに成功した場合、<code>true</code>
+	 * @see FieldValidationPlan#isNumeric()
+	 */
+	boolean checkNumber(final FieldValidationPlan field, final BigDecimal value, final ValidationPath path,
+			final ValidationResultCollector collector) {
+		final AdaptiveRuleOrder order = adaptiveOrder(field);
+		if (sample(order)) {
+			return sampleField(field, order, value, true, path, collector);
+		}
+		final Validation[] validations = (null != order) ? order.validations() : field.validations();
+		for (int i = 0; i < validations.length; i++) {
+			boolean valid;
+			if (metricsEnabled) {
+				final long start = System.nanoTime();
+				valid = ((NumericValidation) validations[i]).isValid(value);
+				metrics.onRule(validations[i], System.nanoTime() - start, valid);
+			} else {
+				valid = ((NumericValidation) validations[i]).isValid(value);
+			}
+			if (!valid) {
+				return numberError(field, validations[i], value, path, collector);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 失敗した数値のバリデーション結果を生成する。
+	 * 
+	 * @param field フィールド計画
+	 * @param validation 失敗したバリデーション
+	 * @param value 値
+	 * @param path パス
+	 * @param collector エラー収集
+	 * @return <code>false</code>
+	 */
+	private boolean numberError(final FieldValidationPlan field, final Validation validation, final Number value,
+			final ValidationPath path, final ValidationResultCollector collector) {
+		final ValidationContext context = new ValidationContext(value, field.getName(), path, locale, messages);
+		collector.add(validation.validate(context));
+		return false;
+	}
+
+	/**
+	 * POJOとしてバリデーションする値か判断する。
+	 * 
+	 * @param value 値
+	 * @return POJOの場合、<code>true</code>
+	 */
+	private static boolean isBean(final Object value) {
+		if (null == value || value instanceof Map || value instanceof List) {
+			return false;
+		}
+		Class<?> clazz = value.getClass();
+		return !(clazz.isArray() || clazz.isEnum() || clazz.getName().startsWith("java."));
+	}
+
+	/**
+	 * フィールドのバリデーションを実行順に行う。
+	 * 
+	 * @param field フィールド計画
+	 * @param value 値
+	 * @param present 値が存在する場合、<code>true</code>
+	 * @param path パス
+	 * @param collector エラー収集
+	 * @return すべてのバリデーションに成功した場合、<code>true</code>
+	 */
+	boolean checkField(final FieldValidationPlan field, final Object value, final boolean present,
+			final ValidationPath path,
+			final ValidationResultCollector collector) {
+		final AdaptiveRuleOrder order = adaptiveOrder(field);
+		if (sample(order)) {
+			return sampleField(field, order, value, present, path, collector);
+		}
+
+		boolean validationSuccess = true;
+		final Validation[] validations = (null != order) ? order.validations() : field.validations();
+		if (0 < validations.length) {
+			if (ValidationEngine.COMPILED == engine && null != field.compiled() && !metricsEnabled && null == order) {
+				int index;
+				try {
+					index = (int) field.compiled().invokeExact(value, present);
+				} catch (RuntimeException ex) {
+					throw ex;
+				} catch (Throwable ex) {
+					throw new IllegalStateException(ex);
+				}
+				if (-1 == index) {
+					return true;
+				}
+				// 合成したチェックが失敗したバリデーションからエラーを生成する
+				final ValidationContext context = new ValidationContext(value, field.getName(), path, locale, messages);
+				ValidationResult result = invoke(validations[index], context);
+				if (result.isResult()) {
+					throw new IllegalStateException("Compiled check does not match validation.[" + validations[index]
+							.getClass().getName() + "]");
+				}
+				collector.add(result);
+				return false;
+			}
+
+			final ValidationContext context = new ValidationContext(value, field.getName(), path, locale, messages);
+
+			for (Validation validation : validations) {
+				if (validation instanceof RequiredValidation) {
+					if (!present) {
+						collector.add(invoke(validation, context));
+						validationSuccess = false;
+						break;
+					}
+				} else {
+					ValidationResult result = invoke(validation, context);
+					if (!result.isResult()) {
+						collector.add(result);
+						validationSuccess = false;
+						break;
 					}
 				}
 			}
 		}
+		return validationSuccess;
 	}
 
-	private String getLabel(final String id) {
-		return labels.get(id);
+	/**
+	 * 実行順を学習するフィールドの学習を取得する。
+	 * 
+	 * @param field フィールド計画
+	 * @return 実行順の学習。学習しない場合、<code>null</code>
+	 */
+	private AdaptiveRuleOrder adaptiveOrder(final FieldValidationPlan field) {
+		return (RuleOrdering.DECLARED != ruleOrdering) ? field.adaptiveOrder() : null;
 	}
 
-	private String getName(final Field field) {
-		String name = null;
+	/**
+	 * 実行順の学習の為にサンプリングする呼び出しか判断する。
+	 * 
+	 * @param order 実行順の学習
+	 * @return サンプリングする場合、<code>true</code>
+	 */
+	private boolean sample(final AdaptiveRuleOrder order) {
+		return null != order && order.sample(ruleSampleInterval, RuleOrdering.DETERMINISTIC == ruleOrdering);
+	}
 
-		NameBindLabel an1 = field.getAnnotation(NameBindLabel.class);
-		if (null != an1) {
-			name = getLabel(an1.value());
+	/**
+	 * フィールドのすべてのバリデーションを行い、実行順の学習に記録する。
+	 * <p>
+	 * 結果は現在の実行順で最初に失敗したバリデーションのみを追加する。 {@link RuleOrdering#ADAPTIVE} の場合のみ時間を計測する。
+	 * </p>
+	 * 
+	 * @param field フィールド計画
+	 * @param order 実行順の学習
+	 * @param value 値
+	 * @param present 値が存在する場合、<code>true</code>
+	 * @param path パス
+	 * @param collector エラー収集
+	 * @return すべてのバリデーションに成功した場合、<code>true</code>
+	 */
+	private boolean sampleField(final FieldValidationPlan field, final AdaptiveRuleOrder order, final Object value,
+			final boolean present, final ValidationPath path, final ValidationResultCollector collector) {
+		final boolean useCost = (RuleOrdering.ADAPTIVE == ruleOrdering);
+		final ValidationContext context = new ValidationContext(value, field.getName(), path, locale, messages);
+
+		ValidationResult error = null;
+		for (Validation validation : order.validations()) {
+			if (validation instanceof RequiredValidation && present) {
+				order.record(validation, 0L, false);
+				continue;
+			}
+			final long start = useCost ? System.nanoTime() : 0L;
+			ValidationResult result = invoke(validation, context);
+			final boolean failed = (validation instanceof RequiredValidation) || !result.isResult();
+			order.record(validation, useCost ? System.nanoTime() - start : 0L, failed);
+			if (failed && null == error) {
+				error = result;
+			}
 		}
+		order.sampled(useCost);
 
-		if (null == name || 0 == name.length()) {
-			NameBindValue an2 = field.getAnnotation(NameBindValue.class);
-			if (null != an2) {
-				name = an2.value();
+		if (null != error) {
+			collector.add(error);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * バリデーションを呼び出す。
+	 * 
+	 * @param validation バリデーション
+	 * @param context コンテキスト
+	 * @return バリデーション結果。エラーの場合、コンテキストの情報を補完した結果
+	 */
+	private ValidationResult invoke(final Validation validation, final ValidationContext context) {
+		final Validation target = (validation instanceof ThreadConfinedValidation) ? ((ThreadConfinedValidation) validation)
+				.current() : validation;
+		if (!metricsEnabled) {
+			return target.validate(context).bind(target, context);
+		}
+		final long start = System.nanoTime();
+		ValidationResult result = target.validate(context);
+		metrics.onRule(target, System.nanoTime() - start, result.isResult());
+		return result.bind(target, context);
+	}
+
+	/**
+	 * ロケールを取得する。
+	 * 
+	 * @return ロケール。<code>null</code>の場合、デフォルトロケール
+	 */
+	Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * メッセージバンドルを取得する。
+	 * 
+	 * @return メッセージバンドル
+	 */
+	MessageBundle getMessageBundle() {
+		return messages;
+	}
+
+	/**
+	 * ラベルバンドルを取得する。
+	 * 
+	 * @return ラベルバンドル
+	 */
+	LabelBundle getLabelBundle() {
+		return labels;
+	}
+
+	/**
+	 * 子要素のPOJOとしてバリデーションするクラスか判断する。
+	 * <p>
+	 * 外部ライブラリの値オブジェクト等をリフレクションで辿らない為、生成されたバリデーション計画を持つクラス、
+	 * またはクラス階層のフィールドにバリデーションアノテーションを持つクラスのみを対象とする。
+	 * </p>
+	 * 
+	 * @param clazz クラス
+	 * @return バリデーションするクラスの場合、<code>true</code>
+	 */
+	static boolean isTarget(final Class<?> clazz) {
+		return TargetHolder.TARGETS.get(clazz);
+	}
+
+	/**
+	 * 生成されたバリデーション計画を持つか判断する。
+	 * 
+	 * @param clazz クラス
+	 * @return {@link ValidationPlanFactory} が登録されている場合、<code>true</code>
+	 */
+	static boolean hasFactory(final Class<?> clazz) {
+		return null != FactoryHolder.FACTORIES.get(clazz);
+	}
+
+	/**
+	 * クラスのバリデーション計画を取得する。
+	 * <p>
+	 * 計画はクラス毎に一度だけ構築され、以降はキャッシュされた計画を返す。
+	 * </p>
+	 * 
+	 * @param clazz クラス
+	 * @return バリデーション計画
+	 */
+	ClassValidationPlan getPlan(final Class<?> clazz) throws Exception {
+		ClassValidationPlan plan = plans.get(clazz);
+		if (null == plan) {
+			plan = createPlan(clazz);
+			ClassValidationPlan current = plans.putIfAbsent(clazz, plan);
+			if (null != current) {
+				plan = current;
 			}
 		}
+		return plan;
+	}
 
+	/**
+	 * クラスのバリデーション計画を構築する。
+	 * 
+	 * @param clazz クラス
+	 * @return バリデーション計画
+	 */
+	private ClassValidationPlan createPlan(final Class<?> clazz) throws Exception {
+		ValidationPlanFactory factory = FactoryHolder.FACTORIES.get(clazz);
+		if (null != factory) {
+			ValidationPlanBuilder builder = new ValidationPlanBuilder(this, clazz);
+			factory.define(builder);
+			return builder.build();
+		}
+
+		List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+		for (Class<?> c = clazz; null != c; c = c.getSuperclass()) {
+			hierarchy.add(0, c);
+		}
+
+		Map<TypeVariable<?>, Type> bindings = TypeModel.bindings(clazz);
+		List<FieldValidationPlan> fields = new ArrayList<FieldValidationPlan>();
+		for (Class<?> c : hierarchy) {
+			for (Field field : c.getDeclaredFields()) {
+				if (field.isSynthetic()) {
+					continue;
+				}
+
+				String name = field.getName();
+				final JsonProperty jp = field.getAnnotation(JsonProperty.class);
+				if (null != jp) {
+					name = jp.value();
+				}
+
+				TypeModel model = TypeModel.of(field.getGenericType(), bindings);
+				fields.add(new FieldValidationPlan(field, name, getName(field), getFieldValidations(field), model,
+						null != field.getAnnotation(CustomValidate.class)));
+			}
+		}
+		return new ClassValidationPlan(clazz, fields);
+	}
+
+	private String getLabel(final String id) {
+		return labels.get(id, locale);
+	}
+
+	private String getName(final Field field) {
+		NameBindLabel an1 = field.getAnnotation(NameBindLabel.class);
+		NameBindValue an2 = field.getAnnotation(NameBindValue.class);
+		return getName((null != an1) ? an1.value() : null, (null != an2) ? an2.value() : null);
+	}
+
+	/**
+	 * メッセージ内で使用する名前を解決する。
+	 * 
+	 * @param labelId ラベルID。存在しない場合、<code>null</code>
+	 * @param value 値。存在しない場合、<code>null</code>
+	 * @return 名前
+	 */
+	String getName(final String labelId, final String value) {
+		String name = null;
+		if (null != labelId) {
+			name = getLabel(labelId);
+		}
+		if (null == name || 0 == name.length()) {
+			name = value;
+		}
 		return name;
 	}
 
@@ -231,8 +1403,7 @@ public class Validator {
 			if (null != an) {
 				Class<? extends Validation>[] classes = an.value();
 				for (Class<? extends Validation> clazz : classes) {
-					Validation validation = clazz.newInstance();
-					validation.setMessageBundle(messages);
+					Validation validation = createCustom(clazz, name, field);
 					validations.add(validation);
 				}
 			}
@@ -241,7 +1412,6 @@ public class Validator {
 			Maximum an = field.getAnnotation(Maximum.class);
 			if (null != an) {
 				Validation validation = new MaximumValidation(name, an);
-				validation.setMessageBundle(messages);
 				validations.add(validation);
 			}
 		}
@@ -249,7 +1419,6 @@ public class Validator {
 			Minimum an = field.getAnnotation(Minimum.class);
 			if (null != an) {
 				Validation validation = new MinimumValidation(name, an);
-				validation.setMessageBundle(messages);
 				validations.add(validation);
 			}
 		}
@@ -257,7 +1426,6 @@ public class Validator {
 			NotEmpty an = field.getAnnotation(NotEmpty.class);
 			if (null != an) {
 				Validation validation = new NotEmptyValidation(name, an);
-				validation.setMessageBundle(messages);
 				validations.add(validation);
 			}
 		}
@@ -265,7 +1433,6 @@ public class Validator {
 			NotNull an = field.getAnnotation(NotNull.class);
 			if (null != an) {
 				Validation validation = new NotNullValidation(name, an);
-				validation.setMessageBundle(messages);
 				validations.add(validation);
 			}
 		}
@@ -273,7 +1440,6 @@ public class Validator {
 			Pattern an = field.getAnnotation(Pattern.class);
 			if (null != an) {
 				Validation validation = new PatternValidation(name, an);
-				validation.setMessageBundle(messages);
 				validations.add(validation);
 			}
 		}
@@ -281,7 +1447,6 @@ public class Validator {
 			Range an = field.getAnnotation(Range.class);
 			if (null != an) {
 				Validation validation = new RangeValidation(name, an);
-				validation.setMessageBundle(messages);
 				validations.add(validation);
 			}
 		}
@@ -289,18 +1454,129 @@ public class Validator {
 			Required an = field.getAnnotation(Required.class);
 			if (null != an) {
 				Validation validation = new RequiredValidation(name, an);
-				validation.setMessageBundle(messages);
 				validations.add(validation);
 			}
 		}
 
-		Collections.sort(validations, new Comparator<Validation>() {
-			@Override
-			public int compare(final Validation o1, final Validation o2) {
-				return o1.order() - o2.order();
-			}
-		});
+		Collections.sort(validations, ORDER);
 		return validations;
 	}
 
+	/**
+	 * フィールドのユーザ定義バリデーションを生成する。
+	 * <p>
+	 * {@link NotThreadSafe} が付与されたクラスはスレッド毎のインスタンスで呼び出す。
+	 * </p>
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @param name 名前
+	 * @param field 対象フィールド
+	 * @return バリデーション
+	 * @throws Exception 生成または初期化に失敗した場合
+	 */
+	Validation createCustom(final Class<? extends Validation> clazz, final String name, final Field field)
+			throws Exception {
+		Validation validation = newCustom(clazz, name, field);
+		if (null != clazz.getAnnotation(NotThreadSafe.class)) {
+			validation = new ThreadConfinedValidation(this, clazz, name, field, validation);
+		}
+		return validation;
+	}
+
+	/**
+	 * ユーザ定義バリデーションのインスタンスを生成し、初期化する。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @param name 名前
+	 * @param field 対象フィールド
+	 * @return バリデーション
+	 * @throws Exception 生成または初期化に失敗した場合
+	 */
+	Validation newCustom(final Class<? extends Validation> clazz, final String name, final Field field)
+			throws Exception {
+		Validation validation = customValidationFactory.create(clazz);
+		if (validation instanceof InitializableValidation) {
+			((InitializableValidation) validation).initialize(name, field);
+		}
+		return validation;
+	}
+
+	/**
+	 * 子要素のPOJOとしてバリデーションするクラスかをクラス毎に保持する為のクラス
+	 */
+	private static final class TargetHolder extends ClassValue<Boolean> {
+		private static final TargetHolder TARGETS = new TargetHolder();
+
+		@Override
+		protected Boolean computeValue(final Class<?> type) {
+			if (hasFactory(type)) {
+				return Boolean.TRUE;
+			}
+			String annotationPackage = CustomValidate.class.getPackage().getName();
+			for (Class<?> c = type; null != c; c = c.getSuperclass()) {
+				try {
+					for (Field field : c.getDeclaredFields()) {
+						for (Annotation annotation : field.getAnnotations()) {
+							if (annotationPackage.equals(annotation.annotationType().getPackage().getName())) {
+								return Boolean.TRUE;
+							}
+						}
+					}
+				} catch (LinkageError ex) {
+					return Boolean.FALSE;
+				}
+			}
+			return Boolean.FALSE;
+		}
+	}
+
+	/**
+	 * 生成されたバリデーション計画をクラス毎に遅延検索する為のクラス
+	 * <p>
+	 * 生成クラスは対象クラスと同じパッケージに <code>&lt;クラス名&gt;_ValidationPlanFactory</code>
+	 * (ネストしたクラスは外側のクラス名と <code>_</code> で連結)の名前で生成される為、
+	 * 対象クラスのクラスローダ、見つからない場合はスレッドのコンテキストクラスローダから名前で直接読み込む。
+	 * 結果は対象クラスに関連付けて保持される為、クラスローダの破棄を妨げない。
+	 * </p>
+	 */
+	private static final class FactoryHolder extends ClassValue<ValidationPlanFactory> {
+		private static final FactoryHolder FACTORIES = new FactoryHolder();
+
+		/** 生成クラスの接尾辞 */
+		private static final String SUFFIX = "_ValidationPlanFactory";
+
+		@Override
+		protected ValidationPlanFactory computeValue(final Class<?> type) {
+			ClassLoader loader = type.getClassLoader();
+			ValidationPlanFactory factory = find(type, loader);
+			ClassLoader context = Thread.currentThread().getContextClassLoader();
+			if (null == factory && null != context && context != loader) {
+				factory = find(type, context);
+			}
+			return factory;
+		}
+
+		private static ValidationPlanFactory find(final Class<?> type, final ClassLoader loader) {
+			if (null == loader) {
+				return null;
+			}
+			try {
+				Class<?> clazz = Class.forName(type.getName().replace('$', '_') + SUFFIX, false, loader);
+				if (!ValidationPlanFactory.class.isAssignableFrom(clazz)) {
+					return null;
+				}
+				ValidationPlanFactory factory = clazz.asSubclass(ValidationPlanFactory.class).getDeclaredConstructor()
+						.newInstance();
+				if (type != factory.getType()) {
+					return null;
+				}
+				return factory;
+			} catch (ReflectiveOperationException ex) {
+				// 生成されていない、または読み込めない場合はリフレクションで構築する
+				return null;
+			} catch (LinkageError ex) {
+				return null;
+			}
+		}
+	}
 }
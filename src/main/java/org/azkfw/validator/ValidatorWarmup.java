@@ -0,0 +1,326 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * このクラスは、起動時にバリデーションの初回実行コストを前払いするクラスです。
+ * 
+ * <p>
+ * 登録したクラスのバリデーション計画を構築し、<code>@Pattern</code> の正規表現をコンパイルします。
+ * リストの要素型とフィールドのクラスも再帰的に登録されます。 指定したロケールのラベルとメッセージを読み込み、メッセージテンプレートを解析します。
+ * </p>
+ * 
+ * <p>
+ * 繰り返し回数を指定した場合、フィールドの型から合成した入力でバリデーションを実行し、 JITコンパイルを促します。
+ * 合成入力のバリデーションは {@link Validator#getMetrics()} に計測されず、実行順の学習にも含まれません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class ValidatorWarmup {
+
+	/** 合成入力のネストの最大深さ */
+	private static final int MAX_DEPTH = 4;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final Validator validator;
+
+	/** 事前に読み込むロケール */
+	private Locale[] locales;
+
+	/** 合成入力によるバリデーションの繰り返し回数 */
+	private int iterations;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param validator バリデータ
+	 */
+	public ValidatorWarmup(final Validator validator) {
+		this.validator = validator;
+		this.locales = new Locale[] { validator.getLocale() };
+		this.iterations = 0;
+	}
+
+	/**
+	 * 事前に読み込むロケールを設定する。
+	 * <p>
+	 * デフォルトはバリデータのロケール。
+	 * </p>
+	 * 
+	 * @param locales ロケール
+	 */
+	public void setLocales(final Locale... locales) {
+		this.locales = locales.clone();
+	}
+
+	/**
+	 * 合成入力によるバリデーションの繰り返し回数を設定する。
+	 * <p>
+	 * <code>0</code>の場合、バリデーションは実行しない。
+	 * </p>
+	 * 
+	 * @param iterations 繰り返し回数
+	 */
+	public void setIterations(final int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * クラスを登録する。
+	 * 
+	 * @param classes クラス
+	 * @return ウォームアップ結果
+	 * @throws Exception バリデーション計画の構築に失敗した場合
+	 */
+	public WarmupReport register(final Class<?>... classes) throws Exception {
+		WarmupReport report = new WarmupReport();
+
+		long start = System.nanoTime();
+		validator.getLabelBundle().preload(locales);
+		validator.getMessageBundle().precompile(locales);
+		report.setBundleNanos(System.nanoTime() - start);
+
+		// 合成データの結果をメトリクスと実行順の学習に含めない
+		final Validator runner = validator.warmupView();
+
+		Set<Class<?>> registered = new LinkedHashSet<Class<?>>();
+		Deque<Class<?>> queue = new ArrayDeque<Class<?>>();
+		for (Class<?> clazz : classes) {
+			if (registered.add(clazz)) {
+				queue.add(clazz);
+			}
+		}
+		while (!queue.isEmpty()) {
+			Class<?> clazz = queue.poll();
+
+			start = System.nanoTime();
+			ClassValidationPlan plan = validator.getPlan(clazz);
+			long planNanos = System.nanoTime() - start;
+
+			for (FieldValidationPlan field : plan.fields()) {
+				TypeModel model = field.getModel();
+				while (null != model.getElement()) {
+					model = model.getElement();
+				}
+				if (TypeModel.Kind.OBJECT == model.getKind() && registered.add(model.getType())) {
+					queue.add(model.getType());
+				}
+			}
+
+			start = System.nanoTime();
+			if (0 < iterations) {
+				String sample = sample(plan, 0);
+				byte[] bytes = sample.getBytes(UTF_8);
+				for (int i = 0; i < iterations; i++) {
+					runner.validate("{}", clazz);
+					runner.validate(sample, clazz);
+					runner.validate(bytes, clazz);
+				}
+			}
+			report.add(clazz, planNanos, System.nanoTime() - start);
+		}
+		return report;
+	}
+
+	/**
+	 * パッケージ内のバリデーションアノテーションを持つクラスを登録する。
+	 * <p>
+	 * サブパッケージも対象とする。
+	 * </p>
+	 * 
+	 * @param packageNames パッケージ名
+	 * @return ウォームアップ結果
+	 * @throws Exception クラスの検索またはバリデーション計画の構築に失敗した場合
+	 */
+	public WarmupReport registerPackage(final String... packageNames) throws Exception {
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (null == loader) {
+			loader = Validator.class.getClassLoader();
+		}
+
+		List<Class<?>> classes = new ArrayList<Class<?>>();
+		for (String packageName : packageNames) {
+			for (String className : scan(loader, packageName)) {
+				Class<?> clazz;
+				try {
+					clazz = Class.forName(className, false, loader);
+				} catch (ClassNotFoundException ex) {
+					continue;
+				} catch (LinkageError ex) {
+					continue;
+				}
+				if (isTarget(clazz)) {
+					classes.add(clazz);
+				}
+			}
+		}
+		return register(classes.toArray(new Class<?>[classes.size()]));
+	}
+
+	/**
+	 * パッケージ内のクラス名一覧を取得する。
+	 * 
+	 * @param loader クラスローダ
+	 * @param packageName パッケージ名
+	 * @return クラス名一覧
+	 */
+	private static Collection<String> scan(final ClassLoader loader, final String packageName) throws IOException,
+			URISyntaxException {
+		String path = packageName.replace('.', '/');
+		Set<String> classNames = new LinkedHashSet<String>();
+
+		Enumeration<URL> urls = loader.getResources(path);
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			if ("file".equals(url.getProtocol())) {
+				scan(new File(url.toURI()), packageName, classNames);
+			} else if ("jar".equals(url.getProtocol())) {
+				URLConnection connection = url.openConnection();
+				connection.setUseCaches(false);
+				JarFile jar = ((JarURLConnection) connection).getJarFile();
+				try {
+					Enumeration<JarEntry> entries = jar.entries();
+					while (entries.hasMoreElements()) {
+						String name = entries.nextElement().getName();
+						if (name.startsWith(path + "/") && name.endsWith(".class")) {
+							addClassName(name.substring(0, name.length() - 6).replace('/', '.'), classNames);
+						}
+					}
+				} finally {
+					jar.close();
+				}
+			}
+		}
+		return classNames;
+	}
+
+	private static void scan(final File dir, final String packageName, final Set<String> classNames) {
+		File[] files = dir.listFiles();
+		if (null == files) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			if (file.isDirectory()) {
+				scan(file, packageName + "." + name, classNames);
+			} else if (name.endsWith(".class")) {
+				addClassName(packageName + "." + name.substring(0, name.length() - 6), classNames);
+			}
+		}
+	}
+
+	private static void addClassName(final String className, final Set<String> classNames) {
+		if (!className.endsWith("package-info") && !className.endsWith("module-info")) {
+			classNames.add(className);
+		}
+	}
+
+	/**
+	 * 登録対象のクラスか判断する。
+	 * 
+	 * @param clazz クラス
+	 * @return 生成されたバリデーション計画またはバリデーションアノテーションを持つ場合、<code>true</code>
+	 */
+	private static boolean isTarget(final Class<?> clazz) {
+		if (clazz.isInterface() || clazz.isEnum() || clazz.isAnonymousClass() || clazz.isLocalClass()
+				|| clazz.isSynthetic()) {
+			return false;
+		}
+		return Validator.isTarget(clazz);
+	}
+
+	/**
+	 * バリデーション計画からJSONを合成する。
+	 * 
+	 * @param plan バリデーション計画
+	 * @param depth ネストの深さ
+	 * @return JSON
+	 */
+	private String sample(final ClassValidationPlan plan, final int depth) throws Exception {
+		StringBuilder s = new StringBuilder("{");
+		for (FieldValidationPlan field : plan.fields()) {
+			if (1 < s.length()) {
+				s.append(',');
+			}
+			s.append(quote(field.getName())).append(':');
+			s.append(sample(field.getModel(), depth));
+		}
+		return s.append('}').toString();
+	}
+
+	private String sample(final TypeModel model, final int depth) throws Exception {
+		switch (model.getKind()) {
+		case OBJECT:
+			return (depth < MAX_DEPTH) ? sample(validator.getPlan(model.getType()), depth + 1) : "{}";
+		case LIST:
+			return "[" + sample(model.getElement(), depth + 1) + "]";
+		case MAP:
+			return "{\"a\":" + sample(model.getElement(), depth + 1) + "}";
+		default:
+			break;
+		}
+
+		Class<?> type = model.getType();
+		if (boolean.class == type || Boolean.class == type) {
+			return "false";
+		} else if ((type.isPrimitive() && char.class != type) || Number.class.isAssignableFrom(type)) {
+			return "0";
+		} else if (char.class == type || Character.class == type || CharSequence.class.isAssignableFrom(type)) {
+			return "\"a\"";
+		}
+		return "null";
+	}
+
+	private static String quote(final String value) {
+		StringBuilder s = new StringBuilder(value.length() + 2).append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if ('"' == c || '\\' == c) {
+				s.append('\\').append(c);
+			} else if (c < 0x20) {
+				s.append(String.format("\\u%04x", (int) c));
+			} else {
+				s.append(c);
+			}
+		}
+		return s.append('"').toString();
+	}
+}
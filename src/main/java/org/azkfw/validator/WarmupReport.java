@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、{@link ValidatorWarmup} の結果を保持するクラスです。
+ * 
+ * <p>
+ * クラス毎にバリデーション計画の構築時間と合成入力によるバリデーションの時間を保持します。 クラスは登録した順に保持されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class WarmupReport {
+
+	/** クラスと時間(計画の構築, 合成入力)のマップ */
+	private final Map<Class<?>, long[]> classes;
+
+	/** バンドルの読み込み時間 */
+	private long bundleNanos;
+
+	/**
+	 * コンストラクタ
+	 */
+	WarmupReport() {
+		classes = new LinkedHashMap<Class<?>, long[]>();
+		bundleNanos = 0;
+	}
+
+	/**
+	 * クラスの時間を追加する。
+	 * 
+	 * @param clazz クラス
+	 * @param planNanos 計画の構築時間(ナノ秒)
+	 * @param runNanos 合成入力によるバリデーションの時間(ナノ秒)
+	 */
+	void add(final Class<?> clazz, final long planNanos, final long runNanos) {
+		classes.put(clazz, new long[] { planNanos, runNanos });
+	}
+
+	/**
+	 * バンドルの読み込み時間を設定する。
+	 * 
+	 * @param nanos 時間(ナノ秒)
+	 */
+	void setBundleNanos(final long nanos) {
+		this.bundleNanos = nanos;
+	}
+
+	/**
+	 * 登録したクラス一覧を取得する。
+	 * 
+	 * @return クラス一覧
+	 */
+	public List<Class<?>> getClasses() {
+		return Collections.unmodifiableList(new ArrayList<Class<?>>(classes.keySet()));
+	}
+
+	/**
+	 * クラスのバリデーション計画の構築時間を取得する。
+	 * 
+	 * @param clazz クラス
+	 * @return 時間(ナノ秒)。登録されていない場合、<code>-1</code>
+	 */
+	public long getPlanNanos(final Class<?> clazz) {
+		long[] nanos = classes.get(clazz);
+		return (null != nanos) ? nanos[0] : -1;
+	}
+
+	/**
+	 * クラスの合成入力によるバリデーションの時間を取得する。
+	 * 
+	 * @param clazz クラス
+	 * @return 時間(ナノ秒)。登録されていない場合、<code>-1</code>
+	 */
+	public long getRunNanos(final Class<?> clazz) {
+		long[] nanos = classes.get(clazz);
+		return (null != nanos) ? nanos[1] : -1;
+	}
+
+	/**
+	 * クラスのウォームアップ時間を取得する。
+	 * 
+	 * @param clazz クラス
+	 * @return 時間(ナノ秒)。登録されていない場合、<code>-1</code>
+	 */
+	public long getNanos(final Class<?> clazz) {
+		long[] nanos = classes.get(clazz);
+		return (null != nanos) ? nanos[0] + nanos[1] : -1;
+	}
+
+	/**
+	 * バンドルの読み込みとテンプレートの解析の時間を取得する。
+	 * 
+	 * @return 時間(ナノ秒)
+	 */
+	public long getBundleNanos() {
+		return bundleNanos;
+	}
+
+	/**
+	 * ウォームアップ全体の時間を取得する。
+	 * 
+	 * @return 時間(ナノ秒)
+	 */
+	public long getTotalNanos() {
+		long total = bundleNanos;
+		for (long[] nanos : classes.values()) {
+			total += nanos[0] + nanos[1];
+		}
+		return total;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("warmup %.3f ms (bundle %.3f ms)%n", getTotalNanos() / 1e6, bundleNanos / 1e6));
+		for (Map.Entry<Class<?>, long[]> entry : classes.entrySet()) {
+			long[] nanos = entry.getValue();
+			s.append(String.format("  %-60s plan %10.3f ms  run %10.3f ms%n", entry.getKey().getName(), nanos[0] / 1e6,
+					nanos[1] / 1e6));
+		}
+		return s.toString();
+	}
+}
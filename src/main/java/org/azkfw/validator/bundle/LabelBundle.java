@@ -17,6 +17,8 @@
  */
 package org.azkfw.validator.bundle;
 
+import java.util.Locale;
+
 /**
  * @since 1.0.0
  * @version 1.0.0 2015/02/13
@@ -24,8 +26,13 @@ package org.azkfw.validator.bundle;
  */
 public class LabelBundle extends ResourceBundle {
 
-	public LabelBundle() {
-		super("/org/azkfw/validator/label.properties");
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param locales 事前に読み込むロケール
+	 */
+	public LabelBundle(final Locale... locales) {
+		super("/org/azkfw/validator/label.properties", locales);
 	}
 
 }
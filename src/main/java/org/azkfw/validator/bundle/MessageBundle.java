@@ -17,6 +17,10 @@
  */
 package org.azkfw.validator.bundle;
 
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * @since 1.0.0
  * @version 1.0.0 2015/02/13
@@ -24,8 +28,71 @@ package org.azkfw.validator.bundle;
  */
 public class MessageBundle extends ResourceBundle {
 
-	public MessageBundle() {
-		super("/org/azkfw/validator/message.properties");
+	/** メッセージ文字列とテンプレートのキャッシュ */
+	private final ConcurrentMap<String, MessageTemplate> templates;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param locales 事前に読み込むロケール
+	 */
+	public MessageBundle(final Locale... locales) {
+		super("/org/azkfw/validator/message.properties", locales);
+		templates = new ConcurrentHashMap<String, MessageTemplate>();
+	}
+
+	/**
+	 * メッセージテンプレートを取得する。
+	 * <p>
+	 * テンプレートはメッセージ文字列毎に一度だけ解析される。
+	 * </p>
+	 * 
+	 * @param name 名前
+	 * @param locale ロケール。<code>null</code>の場合、デフォルトロケール
+	 * @return テンプレート。存在しない場合、<code>null</code>
+	 */
+	public MessageTemplate getTemplate(final String name, final Locale locale) {
+		String message = get(name, locale);
+		if (null == message || 0 == message.length()) {
+			return null;
+		}
+
+		MessageTemplate template = templates.get(message);
+		if (null == template) {
+			template = MessageTemplate.compile(message);
+			MessageTemplate current = templates.putIfAbsent(message, template);
+			if (null != current) {
+				template = current;
+			}
+		}
+		return template;
+	}
+
+	/**
+	 * 指定ロケールのすべてのメッセージテンプレートを事前に解析する。
+	 * 
+	 * @param locales ロケール
+	 */
+	public void precompile(final Locale... locales) {
+		preload(locales);
+		for (Locale locale : locales) {
+			for (String name : getNames(locale)) {
+				getTemplate(name, locale);
+			}
+		}
+	}
+
+	/**
+	 * 読み込み済みのリソースを再読み込みする。
+	 * <p>
+	 * テンプレートはメッセージ文字列をキーとする為、再読み込み前のテンプレートが誤って使用されることはない。
+	 * 不要になったテンプレートを解放する為にキャッシュを破棄する。
+	 * </p>
+	 */
+	@Override
+	public void reload() {
+		super.reload();
+		templates.clear();
 	}
 
 }
@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.bundle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * このクラスは、<code>${key}</code> 形式のキーワードを含むメッセージテンプレートです。
+ *
+ * <p>
+ * テンプレートは生成時に一度だけ固定文字列とキーワードに分解され、 出力時は一つの {@link StringBuilder} に順に追記するだけで文字列を生成します。
+ * 値が存在しないキーワードは <code>${key}</code> のまま出力されます。
+ * </p>
+ *
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class MessageTemplate {
+
+	/**
+	 * このインターフェースは、キーワードの値を解決する為のインターフェースです。
+	 */
+	public static interface Keywords {
+
+		/**
+		 * キーワードの値を取得する。
+		 *
+		 * @param key キーワード
+		 * @return 値。存在しない場合、<code>null</code>
+		 */
+		public Object get(final String key);
+	}
+
+	/** テンプレート文字列 */
+	private final String template;
+
+	/** 固定文字列(キーワード数 + 1) */
+	private final String[] literals;
+
+	/** キーワード */
+	private final String[] keys;
+
+	/** 固定文字列の合計長 */
+	private final int length;
+
+	/**
+	 * テンプレートを生成する。
+	 *
+	 * @param template テンプレート文字列
+	 * @return テンプレート
+	 */
+	public static MessageTemplate compile(final String template) {
+		return new MessageTemplate(template);
+	}
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param template テンプレート文字列
+	 */
+	private MessageTemplate(final String template) {
+		this.template = template;
+
+		List<String> literalList = new ArrayList<String>();
+		List<String> keyList = new ArrayList<String>();
+
+		int length = 0;
+		int start = 0;
+		while (true) {
+			int open = template.indexOf("${", start);
+			int close = (-1 == open) ? -1 : template.indexOf('}', open + 2);
+			if (-1 == close) {
+				String literal = template.substring(start);
+				literalList.add(literal);
+				length += literal.length();
+				break;
+			}
+			String literal = template.substring(start, open);
+			literalList.add(literal);
+			keyList.add(template.substring(open + 2, close));
+			length += literal.length();
+			start = close + 1;
+		}
+
+		this.literals = literalList.toArray(new String[literalList.size()]);
+		this.keys = keyList.toArray(new String[keyList.size()]);
+		this.length = length;
+	}
+
+	/**
+	 * キーワードを値で置き換えた文字列を生成する。
+	 *
+	 * @param keywords キーワード
+	 * @return 文字列
+	 */
+	public String render(final Keywords keywords) {
+		if (0 == keys.length) {
+			return template;
+		}
+
+		StringBuilder s = new StringBuilder(length + 16 * keys.length);
+		for (int i = 0; i < keys.length; i++) {
+			s.append(literals[i]);
+			Object value = keywords.get(keys[i]);
+			if (null != value) {
+				s.append(value.toString());
+			} else {
+				s.append("${").append(keys[i]).append('}');
+			}
+		}
+		s.append(literals[keys.length]);
+		return s.toString();
+	}
+
+	/**
+	 * キーワードを値で置き換えた文字列を生成する。
+	 *
+	 * @param keywords キーワード
+	 * @return 文字列
+	 */
+	public String render(final Map<String, ?> keywords) {
+		return render(new Keywords() {
+			@Override
+			public Object get(final String key) {
+				return keywords.get(key);
+			}
+		});
+	}
+
+	@Override
+	public String toString() {
+		return template;
+	}
+}
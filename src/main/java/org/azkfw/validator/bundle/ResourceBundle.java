@@ -19,26 +19,67 @@ package org.azkfw.validator.bundle;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
+ * このクラスは、プロパティファイルから文字列を取得するバンドルクラスです。
+ * 
+ * <p>
+ * 読み込み済みの言語は不変のスナップショットとして保持し、参照時にロックを取得しません。
+ * 言語毎のリソースは読み込み時にデフォルトのリソースとマージされる為、参照は一度のマップ検索で完了します。
+ * 未読込の言語を参照した場合や {@link #preload(Locale...)}、{@link #reload()} の場合は、 新しいスナップショットを生成して置き換えます。
+ * </p>
+ * 
  * @since 1.0.0
  * @version 1.0.0 2015/02/13
  * @author kawakicchi
  */
 public class ResourceBundle implements StringBundle {
 
-	private String name;
+	/**
+	 * このクラスは、読み込み済みのリソースを保持する不変クラスです。
+	 */
+	private static final class Snapshot {
 
-	private Map<String, Map<String, String>> resources;
+		/** デフォルト言語 */
+		private final String defaultLanguage;
 
-	public ResourceBundle(final String name) {
+		/** 言語とリソースのマップ(キー<code>null</code>はデフォルトのリソース) */
+		private final Map<String, Map<String, String>> resources;
+
+		/** 世代(再読み込み毎に増加) */
+		private final long generation;
+
+		private Snapshot(final String defaultLanguage, final Map<String, Map<String, String>> resources,
+				final long generation) {
+			this.defaultLanguage = defaultLanguage;
+			this.resources = resources;
+			this.generation = generation;
+		}
+	}
+
+	private final String name;
+
+	private final AtomicReference<Snapshot> snapshot;
+
+	/**
+	 * コンストラクタ
+	 * <p>
+	 * デフォルトのリソースとデフォルトロケールのリソースを読み込む。
+	 * </p>
+	 * 
+	 * @param name リソース名
+	 * @param locales 事前に読み込むロケール
+	 */
+	public ResourceBundle(final String name, final Locale... locales) {
 		this.name = name;
-		resources = new HashMap<String, Map<String, String>>();
-		resources.put(null, read(null));
+		snapshot = new AtomicReference<Snapshot>(load(Locale.getDefault().getLanguage(), 0L, languages(null, locales)));
 	}
 
 	@Override
@@ -48,31 +89,148 @@ public class ResourceBundle implements StringBundle {
 
 	@Override
 	public String get(final String name, final Locale locale) {
-		String lang = null;
-		if (null != locale) {
-			lang = locale.getLanguage();
-		} else {
-			lang = Locale.getDefault().getLanguage();
+		Snapshot snap = snapshot.get();
+
+		String lang = (null != locale) ? locale.getLanguage() : snap.defaultLanguage;
+		Map<String, String> resource = snap.resources.get(lang);
+		if (null == resource) {
+			resource = resource(lang);
+		}
+		return resource.get(name);
+	}
+
+	/**
+	 * リソースの名前一覧を取得する。
+	 * 
+	 * @param locale ロケール。<code>null</code>の場合、デフォルトロケール
+	 * @return 名前一覧
+	 */
+	public Set<String> getNames(final Locale locale) {
+		Snapshot snap = snapshot.get();
+
+		String lang = (null != locale) ? locale.getLanguage() : snap.defaultLanguage;
+		Map<String, String> resource = snap.resources.get(lang);
+		if (null == resource) {
+			resource = resource(lang);
 		}
+		return resource.keySet();
+	}
+
+	/**
+	 * 指定ロケールのリソースを事前に読み込む。
+	 * 
+	 * @param locales ロケール
+	 */
+	public void preload(final Locale... locales) {
+		while (true) {
+			Snapshot current = snapshot.get();
+			String[] languages = languages(current, locales);
+			if (languages.length == current.resources.size()) {
+				return;
+			}
+			if (snapshot.compareAndSet(current, load(current.defaultLanguage, current.generation, languages))) {
+				return;
+			}
+		}
+	}
 
-		String string = null;
+	/**
+	 * 読み込み済みのリソースを再読み込みする。
+	 * <p>
+	 * 新しいスナップショットを構築した後に置き換える為、再読み込み中も参照はブロックされない。 デフォルトロケールも再取得される。
+	 * 構築中に他のスレッドが言語を追加した場合は、その言語を含めて構築し直す。
+	 * </p>
+	 */
+	public void reload() {
+		while (true) {
+			Snapshot current = snapshot.get();
+			Snapshot next = load(Locale.getDefault().getLanguage(), current.generation + 1, languages(current));
+			if (snapshot.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
 
+	/**
+	 * 未読込の言語のリソースを読み込みスナップショットに追加する。
+	 * <p>
+	 * 読み込み中に再読み込みされた場合は、古いリソースを追加しないよう読み込み直す。
+	 * </p>
+	 * 
+	 * @param lang 言語
+	 * @return リソース
+	 */
+	private Map<String, String> resource(final String lang) {
 		Map<String, String> resource = null;
-		synchronized (resources) {
-			if (resources.containsKey(lang)) {
-				resource = resources.get(lang);
-			} else {
-				resource = read(lang);
-				resources.put(lang, resource);
+		long generation = -1L;
+		while (true) {
+			Snapshot current = snapshot.get();
+			Map<String, String> loaded = current.resources.get(lang);
+			if (null != loaded) {
+				return loaded;
+			}
+			if (null == resource || generation != current.generation) {
+				resource = merge(current.resources.get(null), read(lang));
+				generation = current.generation;
+			}
+
+			Map<String, Map<String, String>> resources = new HashMap<String, Map<String, String>>(current.resources);
+			resources.put(lang, resource);
+			if (snapshot.compareAndSet(current, new Snapshot(current.defaultLanguage,
+					Collections.unmodifiableMap(resources), current.generation))) {
+				return resource;
+			}
+		}
+	}
+
+	/**
+	 * スナップショットを構築する。
+	 * 
+	 * @param defaultLanguage デフォルト言語
+	 * @param generation 世代
+	 * @param languages 言語一覧
+	 * @return スナップショット
+	 */
+	private Snapshot load(final String defaultLanguage, final long generation, final String... languages) {
+		Map<String, String> base = Collections.unmodifiableMap(read(null));
+
+		Map<String, Map<String, String>> resources = new HashMap<String, Map<String, String>>();
+		resources.put(null, base);
+		resources.put(defaultLanguage, merge(base, read(defaultLanguage)));
+		for (String lang : languages) {
+			if (!resources.containsKey(lang)) {
+				resources.put(lang, merge(base, read(lang)));
 			}
 		}
-		string = resource.get(name);
-		if (null == string) {
-			resource = resources.get(null);
-			string = resource.get(name);
+		return new Snapshot(defaultLanguage, Collections.unmodifiableMap(resources), generation);
+	}
+
+	/**
+	 * 読み込み対象の言語一覧を取得する。
+	 * 
+	 * @param snap 現在のスナップショット
+	 * @param locales 追加するロケール
+	 * @return 言語一覧
+	 */
+	private static String[] languages(final Snapshot snap, final Locale... locales) {
+		Map<String, Boolean> languages = new HashMap<String, Boolean>();
+		if (null != snap) {
+			for (String lang : snap.resources.keySet()) {
+				languages.put(lang, Boolean.TRUE);
+			}
+		}
+		for (Locale locale : locales) {
+			if (null != locale) {
+				languages.put(locale.getLanguage(), Boolean.TRUE);
+			}
 		}
+		return languages.keySet().toArray(new String[languages.size()]);
+	}
 
-		return string;
+	private static Map<String, String> merge(final Map<String, String> base, final Map<String, String> resource) {
+		Map<String, String> merged = new HashMap<String, String>(base);
+		merged.putAll(resource);
+		return Collections.unmodifiableMap(merged);
 	}
 
 	private Map<String, String> read(final String lang) {
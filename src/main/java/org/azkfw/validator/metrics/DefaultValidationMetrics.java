@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このクラスは、計測値を {@link ValidationStats} で集計する {@link ValidationMetrics} の実装クラスです。
+ * 
+ * <p>
+ * ドキュメントとオブジェクトはバリデーションクラス毎、バリデーションはバリデーションの実装クラス毎に集計します。
+ * 集計先の検索は {@link ConcurrentHashMap} の参照のみで、初回以外はロックを取得しません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public class DefaultValidationMetrics implements ValidationMetrics {
+
+	private final ConcurrentMap<Class<?>, ValidationStats> documents;
+	private final ConcurrentMap<Class<?>, ValidationStats> objects;
+	private final ConcurrentMap<Class<?>, ValidationStats> rules;
+
+	/**
+	 * コンストラクタ
+	 */
+	public DefaultValidationMetrics() {
+		documents = new ConcurrentHashMap<Class<?>, ValidationStats>();
+		objects = new ConcurrentHashMap<Class<?>, ValidationStats>();
+		rules = new ConcurrentHashMap<Class<?>, ValidationStats>();
+	}
+
+	@Override
+	public void onDocument(final Class<?> clazz, final long nanos, final int errors) {
+		stats(documents, clazz).record(nanos, 0 == errors);
+	}
+
+	@Override
+	public void onObject(final Class<?> clazz, final long nanos) {
+		stats(objects, clazz).record(nanos, true);
+	}
+
+	@Override
+	public void onRule(final Validation validation, final long nanos, final boolean success) {
+		stats(rules, validation.getClass()).record(nanos, success);
+	}
+
+	/**
+	 * ドキュメントの集計を取得する。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @return 集計。存在しない場合、<code>null</code>
+	 */
+	public ValidationStats getDocumentStats(final Class<?> clazz) {
+		return documents.get(clazz);
+	}
+
+	/**
+	 * オブジェクトの集計を取得する。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @return 集計。存在しない場合、<code>null</code>
+	 */
+	public ValidationStats getObjectStats(final Class<?> clazz) {
+		return objects.get(clazz);
+	}
+
+	/**
+	 * バリデーションの集計を取得する。
+	 * 
+	 * @param clazz バリデーションの実装クラス
+	 * @return 集計。存在しない場合、<code>null</code>
+	 */
+	public ValidationStats getRuleStats(final Class<? extends Validation> clazz) {
+		return rules.get(clazz);
+	}
+
+	/**
+	 * すべてのバリデーションの集計を取得する。
+	 * 
+	 * @return バリデーションの実装クラスと集計のマップ
+	 */
+	public Map<Class<?>, ValidationStats> getRuleStats() {
+		return Collections.unmodifiableMap(new HashMap<Class<?>, ValidationStats>(rules));
+	}
+
+	/**
+	 * すべての集計を破棄する。
+	 */
+	public void reset() {
+		documents.clear();
+		objects.clear();
+		rules.clear();
+	}
+
+	private static ValidationStats stats(final ConcurrentMap<Class<?>, ValidationStats> map, final Class<?> clazz) {
+		ValidationStats stats = map.get(clazz);
+		if (null == stats) {
+			stats = new ValidationStats();
+			ValidationStats current = map.putIfAbsent(clazz, stats);
+			if (null != current) {
+				stats = current;
+			}
+		}
+		return stats;
+	}
+}
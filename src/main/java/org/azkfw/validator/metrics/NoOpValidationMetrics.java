@@ -0,0 +1,53 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.metrics;
+
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このクラスは、計測値を破棄する {@link ValidationMetrics} の実装クラスです。
+ * 
+ * <p>
+ * {@link org.azkfw.validator.Validator} のデフォルトです。 このインスタンスが設定されている場合は計測を行わない為、
+ * 計測のコストは分岐一つのみになります。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class NoOpValidationMetrics implements ValidationMetrics {
+
+	/** インスタンス */
+	public static final NoOpValidationMetrics INSTANCE = new NoOpValidationMetrics();
+
+	private NoOpValidationMetrics() {
+	}
+
+	@Override
+	public void onDocument(final Class<?> clazz, final long nanos, final int errors) {
+	}
+
+	@Override
+	public void onObject(final Class<?> clazz, final long nanos) {
+	}
+
+	@Override
+	public void onRule(final Validation validation, final long nanos, final boolean success) {
+	}
+}
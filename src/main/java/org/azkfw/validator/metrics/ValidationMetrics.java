@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.metrics;
+
+import org.azkfw.validator.validation.Validation;
+
+/**
+ * このインターフェースは、バリデーションの計測値を受け取る為のインターフェースです。
+ * 
+ * <p>
+ * ドキュメント単位、クラス計画(オブジェクト)単位、バリデーション単位で呼び出されます。 時間はナノ秒で、
+ * オブジェクトの時間はネストしたオブジェクトの時間を含みます。 実装は複数スレッドから同時に呼び出されます。
+ * </p>
+ * 
+ * <p>
+ * {@link NoOpValidationMetrics} を設定した場合、{@link org.azkfw.validator.Validator} は時間の計測自体を行いません。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public interface ValidationMetrics {
+
+	/**
+	 * ドキュメントのバリデーションが終了した場合に呼び出される。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @param nanos 時間(ナノ秒)
+	 * @param errors エラー数
+	 */
+	public void onDocument(final Class<?> clazz, final long nanos, final int errors);
+
+	/**
+	 * オブジェクトのバリデーションが終了した場合に呼び出される。
+	 * 
+	 * @param clazz バリデーションクラス
+	 * @param nanos 時間(ナノ秒)
+	 */
+	public void onObject(final Class<?> clazz, final long nanos);
+
+	/**
+	 * バリデーションが終了した場合に呼び出される。
+	 * 
+	 * @param validation バリデーション
+	 * @param nanos 時間(ナノ秒)
+	 * @param success 成功した場合、<code>true</code>
+	 */
+	public void onRule(final Validation validation, final long nanos, final boolean success);
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * このクラスは、件数、失敗数、時間の分布を集計するクラスです。
+ * 
+ * <p>
+ * カウンタは {@link LongAdder} で集計する為、複数スレッドから同時に記録しても競合しません。 時間の分布は2の累乗毎のバケット
+ * (バケット <code>i</code> は <code>[2^i, 2^(i+1))</code> ナノ秒、バケット0は1ナノ秒以下)で集計します。
+ * パーセンタイルはバケットの上限で近似されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class ValidationStats {
+
+	/** バケット数 */
+	public static final int BUCKETS = 64;
+
+	private final LongAdder count;
+	private final LongAdder failures;
+	private final LongAdder totalNanos;
+
+	/** 時間の分布 */
+	private final LongAdder[] buckets;
+
+	/**
+	 * コンストラクタ
+	 */
+	public ValidationStats() {
+		count = new LongAdder();
+		failures = new LongAdder();
+		totalNanos = new LongAdder();
+		buckets = new LongAdder[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * 計測値を記録する。
+	 * 
+	 * @param nanos 時間(ナノ秒)
+	 * @param success 成功した場合、<code>true</code>
+	 */
+	public void record(final long nanos, final boolean success) {
+		count.increment();
+		if (!success) {
+			failures.increment();
+		}
+		long value = Math.max(0L, nanos);
+		totalNanos.add(value);
+		buckets[bucket(value)].increment();
+	}
+
+	/**
+	 * 件数を取得する。
+	 * 
+	 * @return 件数
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * 失敗数を取得する。
+	 * 
+	 * @return 失敗数
+	 */
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	/**
+	 * 失敗率を取得する。
+	 * 
+	 * @return 失敗率。件数が0の場合、<code>0</code>
+	 */
+	public double getFailureRate() {
+		long n = getCount();
+		return (0 == n) ? 0.0 : (double) getFailureCount() / n;
+	}
+
+	/**
+	 * 合計時間を取得する。
+	 * 
+	 * @return 合計時間(ナノ秒)
+	 */
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	/**
+	 * 平均時間を取得する。
+	 * 
+	 * @return 平均時間(ナノ秒)。件数が0の場合、<code>0</code>
+	 */
+	public double getMeanNanos() {
+		long n = getCount();
+		return (0 == n) ? 0.0 : (double) getTotalNanos() / n;
+	}
+
+	/**
+	 * パーセンタイルの時間を取得する。
+	 * 
+	 * @param percentile パーセンタイル(<code>0</code>〜<code>100</code>)
+	 * @return 時間(ナノ秒)。バケットの上限で近似した値
+	 */
+	public long getPercentileNanos(final double percentile) {
+		long[] counts = getBuckets();
+		long total = 0;
+		for (long c : counts) {
+			total += c;
+		}
+		if (0 == total) {
+			return 0L;
+		}
+
+		long rank = (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank && 0 < seen) {
+				return upperBound(i);
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * バケット毎の件数を取得する。
+	 * 
+	 * @return 件数
+	 */
+	public long[] getBuckets() {
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets[i].sum();
+		}
+		return counts;
+	}
+
+	/**
+	 * 集計値を初期化する。
+	 */
+	public void reset() {
+		count.reset();
+		failures.reset();
+		totalNanos.reset();
+		for (LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d, failures=%d, mean=%.1fns, p50=%dns, p99=%dns", getCount(), getFailureCount(),
+				getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99));
+	}
+
+	private static int bucket(final long nanos) {
+		return (0L == nanos) ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+	}
+
+	private static long upperBound(final int bucket) {
+		return (63 <= bucket) ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+	}
+}
@@ -0,0 +1,477 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * このクラスは、バリデーション計画を定義するクラスをコンパイル時に生成するアノテーションプロセッサです。
+ * 
+ * <p>
+ * バリデーションアノテーションが付与されたフィールドを持つクラスごとに、 同じパッケージへ
+ * <code>&lt;クラス名&gt;_ValidationPlanFactory</code> を生成し、
+ * <code>META-INF/services/org.azkfw.validator.ValidationPlanFactory</code> に登録します。
+ * 生成されたクラスはアノテーションを解析せず、バリデーションを直接生成します。
+ * </p>
+ * 
+ * <p>
+ * 生成したクラスから参照できないクラスを含む場合は生成を行わず、実行時にリフレッションで計画を構築します。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class ValidationPlanProcessor extends AbstractProcessor {
+
+	/** アノテーションパッケージ */
+	private static final String ANNOTATION = "org.azkfw.validator.annotation.";
+
+	/** バリデーションパッケージ */
+	private static final String VALIDATION = "org.azkfw.validator.validation.";
+
+	/** JSONプロパティ名のアノテーション */
+	private static final String JSON_PROPERTY = "org.codehaus.jackson.annotate.JsonProperty";
+
+	/** サービス定義ファイル */
+	private static final String SERVICE = "META-INF/services/org.azkfw.validator.ValidationPlanFactory";
+
+	/** 生成クラスの接尾辞 */
+	private static final String SUFFIX = "_ValidationPlanFactory";
+
+	/** 組み込みアノテーション(リフレッションと同じ生成順) */
+	private static final List<String> RULES = Arrays.asList("Maximum", "Minimum", "NotEmpty", "NotNull", "Pattern",
+			"Range", "Required");
+
+	/** 処理済みのクラス */
+	private final Set<String> processed = new HashSet<String>();
+
+	/** 生成したクラス */
+	private final Set<String> factories = new TreeSet<String>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		Set<String> types = new HashSet<String>();
+		types.add(ANNOTATION + "CustomValidate");
+		for (String rule : RULES) {
+			types.add(ANNOTATION + rule);
+		}
+		types.add(ANNOTATION + "NameBindLabel");
+		types.add(ANNOTATION + "NameBindValue");
+		types.add(JSON_PROPERTY);
+		return types;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeServices();
+			return false;
+		}
+
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (ElementKind.FIELD != element.getKind()) {
+					continue;
+				}
+				Element type = element.getEnclosingElement();
+				if (ElementKind.CLASS != type.getKind()) {
+					continue;
+				}
+				TypeElement typeElement = (TypeElement) type;
+				if (processed.add(typeElement.getQualifiedName().toString())) {
+					generate(typeElement);
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * バリデーション計画を定義するクラスを生成する。
+	 * 
+	 * @param type 対象クラス
+	 */
+	private void generate(final TypeElement type) {
+		String pkg = getPackage(type);
+		if (!isAccessible(type, pkg)) {
+			return;
+		}
+
+		List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+		for (TypeElement t = type; null != t; t = getSuperclass(t)) {
+			hierarchy.add(0, t);
+		}
+
+		StringBuilder body = new StringBuilder();
+		for (TypeElement t : hierarchy) {
+			for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+				if (!writeField(body, t, field, pkg)) {
+					return;
+				}
+			}
+		}
+
+		String simpleName = getFlatName(type) + SUFFIX;
+		String className = (0 == pkg.length()) ? simpleName : pkg + "." + simpleName;
+		try {
+			Writer writer = processingEnv.getFiler().createSourceFile(className, type).openWriter();
+			try {
+				PrintWriter out = new PrintWriter(writer);
+				if (0 < pkg.length()) {
+					out.println("package " + pkg + ";");
+					out.println();
+				}
+				out.println("/**");
+				out.println(" * " + type.getQualifiedName() + " のバリデーション計画");
+				out.println(" * <p>");
+				out.println(" * " + ValidationPlanProcessor.class.getName() + " によって生成されたクラスです。");
+				out.println(" * </p>");
+				out.println(" */");
+				out.println("public final class " + simpleName + " implements org.azkfw.validator.ValidationPlanFactory {");
+				out.println();
+				out.println("\t@Override");
+				out.println("\tpublic Class<?> getType() {");
+				out.println("\t\treturn " + getCanonicalName(type) + ".class;");
+				out.println("\t}");
+				out.println();
+				out.println("\t@Override");
+				out.println("\tpublic void define(final org.azkfw.validator.ValidationPlanBuilder builder) throws Exception {");
+				out.println("\t\tString name;");
+				out.print(body);
+				out.println("\t}");
+				out.println("}");
+				out.flush();
+			} finally {
+				writer.close();
+			}
+			factories.add(className);
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.toString(), type);
+		}
+	}
+
+	/**
+	 * フィールドの定義を出力する。
+	 * 
+	 * @param s 出力先
+	 * @param declaringType フィールドを宣言したクラス
+	 * @param field フィールド
+	 * @param pkg 生成するパッケージ
+	 * @return 出力できた場合、<code>true</code>。生成クラスから参照できないクラスを含む場合、<code>false</code>
+	 */
+	private boolean writeField(final StringBuilder s, final TypeElement declaringType, final VariableElement field,
+			final String pkg) {
+		if (!isAccessible(declaringType, pkg)) {
+			return false;
+		}
+
+		String fieldName = field.getSimpleName().toString();
+		String jsonName = fieldName;
+		AnnotationMirror jp = getAnnotation(field, JSON_PROPERTY);
+		if (null != jp) {
+			jsonName = (String) getValue(jp, "value");
+		}
+
+		String customs = "null";
+		AnnotationMirror custom = getAnnotation(field, ANNOTATION + "CustomValidate");
+		if (null != custom) {
+			StringBuilder c = new StringBuilder("builder.custom(");
+			for (AnnotationValue value : asList(getValue(custom, "value"))) {
+				TypeMirror mirror = (TypeMirror) value.getValue();
+				if (TypeKind.DECLARED != mirror.getKind()) {
+					return false;
+				}
+				TypeElement validation = (TypeElement) ((DeclaredType) mirror).asElement();
+				if (!isAccessible(validation, pkg)) {
+					return false;
+				}
+				if ('(' != c.charAt(c.length() - 1)) {
+					c.append(", ");
+				}
+				c.append(getCanonicalName(validation)).append(".class");
+			}
+			customs = c.append(")").toString();
+		}
+
+		List<String> validations = new ArrayList<String>();
+		for (String rule : RULES) {
+			AnnotationMirror an = getAnnotation(field, ANNOTATION + rule);
+			if (null == an) {
+				continue;
+			}
+			StringBuilder v = new StringBuilder();
+			v.append("new ").append(VALIDATION).append(rule).append("Validation(name, ");
+			if ("Maximum".equals(rule) || "Minimum".equals(rule)) {
+				v.append(toLiteral((Double) getValue(an, "value"))).append(", ");
+			} else if ("Range".equals(rule)) {
+				v.append(toLiteral((Double) getValue(an, "min"))).append(", ");
+				v.append(toLiteral((Double) getValue(an, "max"))).append(", ");
+			} else if ("Pattern".equals(rule)) {
+				v.append(toLiteral((String) getValue(an, "value"))).append(", ");
+			}
+			v.append(getValue(an, "order")).append(", ");
+			v.append(toLiteral((String) getValue(an, "message"))).append(")");
+			validations.add(v.toString());
+		}
+
+		AnnotationMirror label = getAnnotation(field, ANNOTATION + "NameBindLabel");
+		AnnotationMirror value = getAnnotation(field, ANNOTATION + "NameBindValue");
+		s.append("\t\tname = builder.name(");
+		s.append((null != label) ? toLiteral((String) getValue(label, "value")) : "null").append(", ");
+		s.append((null != value) ? toLiteral((String) getValue(value, "value")) : "null").append(");\n");
+
+		s.append("\t\tbuilder.field(").append(getCanonicalName(declaringType)).append(".class, ");
+		s.append(toLiteral(fieldName)).append(", ");
+		s.append(toLiteral(jsonName)).append(", name, ");
+		s.append(customs);
+		for (String validation : validations) {
+			s.append(",\n\t\t\t\t").append(validation);
+		}
+		s.append(");\n");
+		return true;
+	}
+
+	/**
+	 * サービス定義ファイルを出力する。
+	 * <p>
+	 * 既存のファイルが存在する場合、その定義を引き継ぐ。
+	 * </p>
+	 */
+	private void writeServices() {
+		if (factories.isEmpty()) {
+			return;
+		}
+
+		Set<String> services = new TreeSet<String>(factories);
+		try {
+			FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), "UTF-8"));
+			try {
+				String line;
+				while (null != (line = reader.readLine())) {
+					line = line.trim();
+					if (0 < line.length() && !line.startsWith("#")) {
+						services.add(line);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException ex) {
+			// 既存のファイルなし
+		}
+
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE);
+			PrintWriter out = new PrintWriter(new OutputStreamWriter(file.openOutputStream(), "UTF-8"));
+			try {
+				for (String service : services) {
+					out.println(service);
+				}
+			} finally {
+				out.close();
+			}
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.toString());
+		}
+	}
+
+	private static TypeElement getSuperclass(final TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (TypeKind.DECLARED != superclass.getKind()) {
+			return null;
+		}
+		return (TypeElement) ((DeclaredType) superclass).asElement();
+	}
+
+	private static String getPackage(final TypeElement type) {
+		Element e = type;
+		while (ElementKind.PACKAGE != e.getKind()) {
+			e = e.getEnclosingElement();
+		}
+		return ((PackageElement) e).getQualifiedName().toString();
+	}
+
+	/**
+	 * パッケージ内のクラス名を <code>_</code> 区切りで取得する。
+	 * 
+	 * @param type クラス
+	 * @return クラス名
+	 */
+	private static String getFlatName(final TypeElement type) {
+		StringBuilder s = new StringBuilder(type.getSimpleName());
+		for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+			s.insert(0, '_').insert(0, e.getSimpleName());
+		}
+		return s.toString();
+	}
+
+	private static String getCanonicalName(final TypeElement type) {
+		return type.getQualifiedName().toString();
+	}
+
+	/**
+	 * 生成するクラスから参照できるか判断する。
+	 * 
+	 * @param type クラス
+	 * @param pkg 生成するパッケージ
+	 * @return 参照できる場合、<code>true</code>
+	 */
+	private static boolean isAccessible(final TypeElement type, final String pkg) {
+		boolean samePackage = pkg.equals(getPackage(type));
+		for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			TypeElement t = (TypeElement) e;
+			if (NestingKind.LOCAL == t.getNestingKind() || NestingKind.ANONYMOUS == t.getNestingKind()) {
+				return false;
+			}
+			if (t.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			if (!samePackage && !t.getModifiers().contains(Modifier.PUBLIC)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static AnnotationMirror getAnnotation(final Element element, final String name) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+			if (type.getQualifiedName().contentEquals(name)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * アノテーションの値を取得する。
+	 * 
+	 * @param mirror アノテーション
+	 * @param name 要素名
+	 * @return 値。省略されている場合、デフォルト値
+	 */
+	private Object getValue(final AnnotationMirror mirror, final String name) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils()
+				.getElementValuesWithDefaults(mirror);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(name)) {
+				return entry.getValue().getValue();
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<? extends AnnotationValue> asList(final Object value) {
+		if (value instanceof List) {
+			return (List<? extends AnnotationValue>) value;
+		}
+		return new ArrayList<AnnotationValue>();
+	}
+
+	private static String toLiteral(final Double value) {
+		double d = value.doubleValue();
+		if (Double.isNaN(d)) {
+			return "Double.NaN";
+		} else if (Double.POSITIVE_INFINITY == d) {
+			return "Double.POSITIVE_INFINITY";
+		} else if (Double.NEGATIVE_INFINITY == d) {
+			return "Double.NEGATIVE_INFINITY";
+		}
+		return Double.toString(d);
+	}
+
+	private static String toLiteral(final String value) {
+		if (null == value) {
+			return "null";
+		}
+		StringBuilder s = new StringBuilder(value.length() + 2);
+		s.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				s.append("\\\"");
+				break;
+			case '\\':
+				s.append("\\\\");
+				break;
+			case '\n':
+				s.append("\\n");
+				break;
+			case '\r':
+				s.append("\\r");
+				break;
+			case '\t':
+				s.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					s.append(String.format("\\%03o", (int) c));
+				} else if (c < 0x7f) {
+					s.append(c);
+				} else {
+					s.append(String.format("\\u%04x", (int) c));
+				}
+				break;
+			}
+		}
+		s.append('"');
+		return s.toString();
+	}
+}
@@ -17,10 +17,8 @@
  */
 package org.azkfw.validator.validation;
 
-import java.util.Map;
-
 import org.azkfw.validator.ValidationResult;
-import org.azkfw.validator.bundle.MessageBundle;
+import org.azkfw.validator.bundle.MessageTemplate;
 
 /**
  * このクラスは、バリデーション機能を実装する為の基底クラスです。
@@ -31,13 +29,12 @@ import org.azkfw.validator.bundle.MessageBundle;
  */
 public abstract class AbstractValidation implements Validation {
 
-	private String name;
-	private int order;
-	private String message;
-
-	private Map<String, Object> keyword;
+	private final String name;
+	private final int order;
+	private final String message;
 
-	private MessageBundle messages;
+	/** メッセージテンプレート */
+	private final MessageTemplate template;
 
 	public AbstractValidation() {
 		this("", 1, "");
@@ -47,10 +44,7 @@ public abstract class AbstractValidation implements Validation {
 		this.name = name;
 		this.order = order;
 		this.message = message;
-	}
-
-	public final void setMessageBundle(final MessageBundle bundle) {
-		messages = bundle;
+		this.template = (null != message && 0 < message.length()) ? MessageTemplate.compile(message) : null;
 	}
 
 	@Override
@@ -59,14 +53,8 @@ public abstract class AbstractValidation implements Validation {
 	}
 
 	@Override
-	public final ValidationResult validate(final Object value, final Map<String, Object> keyword) {
-		this.keyword = keyword;
-
-		if (null != name && 0 < name.length()) {
-			this.keyword.put("name", name);
-		}
-
-		ValidationResult result = doValidate(value);
+	public final ValidationResult validate(final ValidationContext context) {
+		ValidationResult result = doValidate(context.getValue(), context);
 		return result;
 	}
 
@@ -74,23 +62,29 @@ public abstract class AbstractValidation implements Validation {
 	 * バリデーションを行う。
 	 * 
 	 * @param value 値
+	 * @param context コンテキスト
 	 * @return バリデーション結果
 	 */
-	protected abstract ValidationResult doValidate(final Object value);
-
-	protected final void setOrder(final int order) {
-		this.order = order;
-	}
+	protected abstract ValidationResult doValidate(final Object value, final ValidationContext context);
 
-	protected final void setMessage(final String messge) {
-		this.message = messge;
+	/**
+	 * メッセージ内で使用する名前を取得する。
+	 * 
+	 * @param context コンテキスト
+	 * @return 名前
+	 */
+	protected final String getName(final ValidationContext context) {
+		if (null != name && 0 < name.length()) {
+			return name;
+		}
+		return context.getName();
 	}
 
-	protected final String getMessage(final String id) {
+	protected final String getMessage(final String id, final ValidationContext context) {
 		if (null != message && 0 < message.length()) {
 			return message;
 		} else {
-			String msg = messages.get(id);
+			String msg = context.getMessageBundle().get(id, context.getLocale());
 			if (null != msg && 0 < msg.length()) {
 				return msg;
 			} else {
@@ -99,22 +93,84 @@ public abstract class AbstractValidation implements Validation {
 		}
 	}
 
+	/**
+	 * メッセージテンプレートを取得する。
+	 * 
+	 * @param id メッセージID
+	 * @param context コンテキスト
+	 * @return メッセージテンプレート
+	 */
+	protected final MessageTemplate getMessageTemplate(final String id, final ValidationContext context) {
+		if (null != template) {
+			return template;
+		} else {
+			MessageTemplate tmp = context.getMessageBundle().getTemplate(id, context.getLocale());
+			if (null != tmp) {
+				return tmp;
+			} else {
+				return MessageTemplate.compile(String.format("Undefined validation error message.[%s]", id));
+			}
+		}
+	}
+
+	/**
+	 * エラー結果を生成する。
+	 * <p>
+	 * メッセージ文字列は {@link ValidationResult#getMessage()} が呼び出されるまで生成されない。
+	 * </p>
+	 * 
+	 * @param id メッセージID
+	 * @param context コンテキスト
+	 * @return バリデーション結果
+	 */
+	protected final ValidationResult error(final String id, final ValidationContext context) {
+		return ValidationResult.error(this, id, getName(context), template, context);
+	}
+
+	/**
+	 * メッセージIDのメッセージをキーワード値で置き換えた文字列を取得する。
+	 * 
+	 * @param id メッセージID
+	 * @param context コンテキスト
+	 * @return メッセージ
+	 */
+	protected final String getDecorateMessage(final String id, final ValidationContext context) {
+		return getMessageTemplate(id, context).render(getKeywords(context));
+	}
+
 	/**
 	 * キーワード値で置き換えた文字列を取得する。
 	 * 
 	 * @param message メッセージ
+	 * @param context コンテキスト
 	 * @return メッセージ
 	 */
-	protected final String getDecorateString(final String message) {
-		String buf = message;
-		if (null != buf) {
-			for (String key : keyword.keySet()) {
-				Object value = keyword.get(key);
-				if (null != value) {
-					buf = buf.replaceAll("\\$\\{" + key + "\\}", (null != value) ? value.toString() : "null");
+	protected final String getDecorateString(final String message, final ValidationContext context) {
+		if (null == message) {
+			return null;
+		}
+		return MessageTemplate.compile(message).render(getKeywords(context));
+	}
+
+	/**
+	 * メッセージのキーワードを取得する。
+	 * 
+	 * @param context コンテキスト
+	 * @return キーワード
+	 */
+	private MessageTemplate.Keywords getKeywords(final ValidationContext context) {
+		return new MessageTemplate.Keywords() {
+			@Override
+			public Object get(final String key) {
+				if ("name".equals(key)) {
+					return getName(context);
+				} else if ("value".equals(key)) {
+					return context.getValue();
+				} else if ("path".equals(key)) {
+					return context.getPath();
 				}
+				return null;
 			}
-		}
-		return buf;
+		};
 	}
 }
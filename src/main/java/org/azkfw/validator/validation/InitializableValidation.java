@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.validation;
+
+import java.lang.reflect.Field;
+
+/**
+ * このインターフェースは、バリデーション計画の構築時に初期化されるバリデーションを定義する為のインターフェースです。
+ * 
+ * <p>
+ * ルックアップテーブルの構築や正規表現のコンパイルなど、重い準備処理はバリデーション毎ではなくこの初期化で行ってください。
+ * 初期化はインスタンスがフィールドに割り当てられる度に一度呼び出されます。 ファクトリが同じインスタンスを返す場合、
+ * フィールド毎に呼び出されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public interface InitializableValidation extends Validation {
+
+	/**
+	 * 初期化する。
+	 * 
+	 * @param name メッセージ内で使用する名前。存在しない場合、<code>null</code>
+	 * @param field 対象フィールド
+	 * @throws Exception 初期化に失敗した場合
+	 */
+	public void initialize(final String name, final Field field) throws Exception;
+
+}
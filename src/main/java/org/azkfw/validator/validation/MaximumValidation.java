@@ -17,6 +17,8 @@
  */
 package org.azkfw.validator.validation;
 
+import java.math.BigDecimal;
+
 import org.azkfw.validator.ValidationResult;
 import org.azkfw.validator.annotation.Maximum;
 
@@ -27,10 +29,13 @@ import org.azkfw.validator.annotation.Maximum;
  * @version 1.0.0 2015/02/13
  * @author kawakicchi
  */
-public final class MaximumValidation extends AbstractValidation {
+public final class MaximumValidation extends AbstractValidation implements NumericValidation {
 
 	/** 最大値 */
-	private double maximum;
+	private final double maximum;
+
+	/** 最大値の十進表記 */
+	private final BigDecimal maximumDecimal;
 
 	/**
 	 * コンストラクタ
@@ -39,20 +44,55 @@ public final class MaximumValidation extends AbstractValidation {
 	 * @param an アノテーション
 	 */
 	public MaximumValidation(final String name, final Maximum an) {
-		super(name, an.order(), an.message());
-		maximum = an.value();
+		this(name, an.value(), an.order(), an.message());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param name 名前
+	 * @param maximum 最大値
+	 * @param order 実行順
+	 * @param message メッセージ
+	 */
+	public MaximumValidation(final String name, final double maximum, final int order, final String message) {
+		super(name, order, message);
+		this.maximum = maximum;
+		this.maximumDecimal = Numbers.decimal(maximum);
+	}
+
+	/**
+	 * 最大値を取得する。
+	 * 
+	 * @return 最大値
+	 */
+	public double getMaximum() {
+		return maximum;
+	}
+
+	@Override
+	public boolean isValid(final double value) {
+		return !(value > maximum);
+	}
+
+	@Override
+	public boolean isValid(final long value) {
+		return Numbers.compare(value, maximum, maximumDecimal) <= 0;
+	}
+
+	@Override
+	public boolean isValid(final BigDecimal value) {
+		return Numbers.compare(value, maximum, maximumDecimal) <= 0;
 	}
 
 	@Override
-	protected ValidationResult doValidate(final Object value) {
+	protected ValidationResult doValidate(final Object value, final ValidationContext context) {
 		if (null != value) {
-			if (!(value instanceof Double)) {
-				String msg = getDecorateString(getMessage("Maximum.format"));
-				return ValidationResult.error(msg);
+			if (!(value instanceof Number)) {
+				return error("Maximum.format", context);
 			}
-			if ((Double) value > maximum) {
-				String msg = getDecorateString(getMessage("Maximum.limit"));
-				return ValidationResult.error(msg);
+			if (Numbers.compare((Number) value, maximum, maximumDecimal) > 0) {
+				return error("Maximum.limit", context);
 			}
 		}
 		return ValidationResult.success();
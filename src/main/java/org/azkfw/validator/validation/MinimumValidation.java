@@ -17,6 +17,8 @@
  */
 package org.azkfw.validator.validation;
 
+import java.math.BigDecimal;
+
 import org.azkfw.validator.ValidationResult;
 import org.azkfw.validator.annotation.Minimum;
 
@@ -27,10 +29,13 @@ import org.azkfw.validator.annotation.Minimum;
  * @version 1.0.0 2015/02/13
  * @author kawakicchi
  */
-public final class MinimumValidation extends AbstractValidation {
+public final class MinimumValidation extends AbstractValidation implements NumericValidation {
 
 	/** 最小値 */
-	private double minimum;
+	private final double minimum;
+
+	/** 最小値の十進表記 */
+	private final BigDecimal minimumDecimal;
 
 	/**
 	 * コンストラクタ
@@ -39,20 +44,55 @@ public final class MinimumValidation extends AbstractValidation {
 	 * @param an アノテーション
 	 */
 	public MinimumValidation(final String name, final Minimum an) {
-		super(name, an.order(), an.message());
-		minimum = an.value();
+		this(name, an.value(), an.order(), an.message());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param name 名前
+	 * @param minimum 最小値
+	 * @param order 実行順
+	 * @param message メッセージ
+	 */
+	public MinimumValidation(final String name, final double minimum, final int order, final String message) {
+		super(name, order, message);
+		this.minimum = minimum;
+		this.minimumDecimal = Numbers.decimal(minimum);
+	}
+
+	/**
+	 * 最小値を取得する。
+	 * 
+	 * @return 最小値
+	 */
+	public double getMinimum() {
+		return minimum;
+	}
+
+	@Override
+	public boolean isValid(final double value) {
+		return !(value < minimum);
+	}
+
+	@Override
+	public boolean isValid(final long value) {
+		return Numbers.compare(value, minimum, minimumDecimal) >= 0;
+	}
+
+	@Override
+	public boolean isValid(final BigDecimal value) {
+		return Numbers.compare(value, minimum, minimumDecimal) >= 0;
 	}
 
 	@Override
-	protected ValidationResult doValidate(final Object value) {
+	protected ValidationResult doValidate(final Object value, final ValidationContext context) {
 		if (null != value) {
-			if (!(value instanceof Double)) {
-				String msg = getDecorateString(getMessage("Minimum.format"));
-				return ValidationResult.error(msg);
+			if (!(value instanceof Number)) {
+				return error("Minimum.format", context);
 			}
-			if ((Double) value < minimum) {
-				String msg = getDecorateString(getMessage("Minimum.limit"));
-				return ValidationResult.error(msg);
+			if (Numbers.compare((Number) value, minimum, minimumDecimal) < 0) {
+				return error("Minimum.limit", context);
 			}
 		}
 		return ValidationResult.success();
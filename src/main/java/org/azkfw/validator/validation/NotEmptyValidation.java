@@ -17,6 +17,7 @@
  */
 package org.azkfw.validator.validation;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -30,7 +31,7 @@ import org.azkfw.validator.annotation.NotEmpty;
  * @version 1.0.0 2015/02/13
  * @author kawakicchi
  */
-public final class NotEmptyValidation extends AbstractValidation {
+public final class NotEmptyValidation extends AbstractValidation implements NumericValidation {
 
 	/**
 	 * コンストラクタ
@@ -39,26 +40,49 @@ public final class NotEmptyValidation extends AbstractValidation {
 	 * @param an アノテーション
 	 */
 	public NotEmptyValidation(final String name, final NotEmpty an) {
-		super(name, an.order(), an.message());
+		this(name, an.order(), an.message());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param name 名前
+	 * @param order 実行順
+	 * @param message メッセージ
+	 */
+	public NotEmptyValidation(final String name, final int order, final String message) {
+		super(name, order, message);
+	}
+
+	@Override
+	public boolean isValid(final double value) {
+		return true;
+	}
+
+	@Override
+	public boolean isValid(final long value) {
+		return true;
+	}
+
+	@Override
+	public boolean isValid(final BigDecimal value) {
+		return true;
 	}
 
 	@Override
-	protected ValidationResult doValidate(final Object value) {
+	protected ValidationResult doValidate(final Object value, final ValidationContext context) {
 		if (null != value) {
 			if (value instanceof String) {
 				if (0 == ((String) value).length()) {
-					String msg = getDecorateString(getMessage("NotEmpty.string"));
-					return ValidationResult.error(msg);
+					return error("NotEmpty.string", context);
 				}
 			} else if (value instanceof List<?>) {
 				if (((List<?>) value).isEmpty()) {
-					String msg = getDecorateString(getMessage("NotEmpty.list"));
-					return ValidationResult.error(msg);
+					return error("NotEmpty.list", context);
 				}
 			} else if (value instanceof Map<?, ?>) {
 				if (((Map<?, ?>) value).isEmpty()) {
-					String msg = getDecorateString(getMessage("NotEmpty.map"));
-					return ValidationResult.error(msg);
+					return error("NotEmpty.map", context);
 				}
 			}
 		}
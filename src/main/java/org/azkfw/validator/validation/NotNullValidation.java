@@ -17,6 +17,8 @@
  */
 package org.azkfw.validator.validation;
 
+import java.math.BigDecimal;
+
 import org.azkfw.validator.ValidationResult;
 import org.azkfw.validator.annotation.NotNull;
 
@@ -27,7 +29,7 @@ import org.azkfw.validator.annotation.NotNull;
  * @version 1.0.0 2015/02/13
  * @author kawakicchi
  */
-public final class NotNullValidation extends AbstractValidation {
+public final class NotNullValidation extends AbstractValidation implements NumericValidation {
 
 	/**
 	 * コンストラクタ
@@ -36,14 +38,39 @@ public final class NotNullValidation extends AbstractValidation {
 	 * @param an アノテーション
 	 */
 	public NotNullValidation(final String name, final NotNull an) {
-		super(name, an.order(), an.message());
+		this(name, an.order(), an.message());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param name 名前
+	 * @param order 実行順
+	 * @param message メッセージ
+	 */
+	public NotNullValidation(final String name, final int order, final String message) {
+		super(name, order, message);
+	}
+
+	@Override
+	public boolean isValid(final double value) {
+		return true;
+	}
+
+	@Override
+	public boolean isValid(final long value) {
+		return true;
+	}
+
+	@Override
+	public boolean isValid(final BigDecimal value) {
+		return true;
 	}
 
 	@Override
-	protected ValidationResult doValidate(final Object value) {
+	protected ValidationResult doValidate(final Object value, final ValidationContext context) {
 		if (null == value) {
-			String msg = getDecorateString(getMessage("NotNull.null"));
-			return ValidationResult.error(msg);
+			return error("NotNull.null", context);
 		}
 		return ValidationResult.success();
 	}
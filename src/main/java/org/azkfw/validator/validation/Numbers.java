@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.validation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * このクラスは、数値と境界値を正確に比較する為のユーティリティクラスです。
+ * 
+ * <p>
+ * 境界値は {@link BigDecimal#valueOf(double)} で十進表記に変換した値として扱います。 <code>double</code> で正確に表現できる範囲の整数は
+ * <code>double</code> のまま比較し、それ以外の整数と {@link BigDecimal} は十進表記の境界値と比較します。 境界値が <code>NaN</code>
+ * の場合、比較結果は常に等しいとなります。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+final class Numbers {
+
+	/** <code>double</code> で正確に表現できる整数の最大値 */
+	private static final long EXACT = 1L << 53;
+
+	private Numbers() {
+	}
+
+	/**
+	 * 境界値を十進表記に変換する。
+	 * 
+	 * @param bound 境界値
+	 * @return 十進表記。<code>NaN</code>、無限大の場合、<code>null</code>
+	 */
+	static BigDecimal decimal(final double bound) {
+		if (Double.isNaN(bound) || Double.isInfinite(bound)) {
+			return null;
+		}
+		return BigDecimal.valueOf(bound);
+	}
+
+	/**
+	 * 数値と境界値を比較する。
+	 * 
+	 * @param value 値
+	 * @param bound 境界値
+	 * @return 値が小さい場合、負の値。等しい場合、<code>0</code>。大きい場合、正の値
+	 */
+	static int compare(final double value, final double bound) {
+		if (value < bound) {
+			return -1;
+		} else if (value > bound) {
+			return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * 数値と境界値を比較する。
+	 * 
+	 * @param value 値
+	 * @param bound 境界値
+	 * @param decimal 境界値の十進表記
+	 * @return 値が小さい場合、負の値。等しい場合、<code>0</code>。大きい場合、正の値
+	 */
+	static int compare(final long value, final double bound, final BigDecimal decimal) {
+		if (null == decimal || (-EXACT <= value && value <= EXACT)) {
+			return compare((double) value, bound);
+		}
+		return BigDecimal.valueOf(value).compareTo(decimal);
+	}
+
+	/**
+	 * 数値と境界値を比較する。
+	 * 
+	 * @param value 値
+	 * @param bound 境界値
+	 * @param decimal 境界値の十進表記
+	 * @return 値が小さい場合、負の値。等しい場合、<code>0</code>。大きい場合、正の値
+	 */
+	static int compare(final BigDecimal value, final double bound, final BigDecimal decimal) {
+		if (null == decimal) {
+			return compare(value.doubleValue(), bound);
+		}
+		return value.compareTo(decimal);
+	}
+
+	/**
+	 * 数値と境界値を比較する。
+	 * <p>
+	 * 整数型は <code>long</code>、{@link BigDecimal}/{@link BigInteger} は {@link BigDecimal}、それ以外は <code>double</code>
+	 * として比較する。
+	 * </p>
+	 * 
+	 * @param value 値
+	 * @param bound 境界値
+	 * @param decimal 境界値の十進表記
+	 * @return 値が小さい場合、負の値。等しい場合、<code>0</code>。大きい場合、正の値
+	 */
+	static int compare(final Number value, final double bound, final BigDecimal decimal) {
+		if (value instanceof Double || value instanceof Float) {
+			return compare(value.doubleValue(), bound);
+		} else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return compare(value.longValue(), bound, decimal);
+		} else if (value instanceof BigDecimal) {
+			return compare((BigDecimal) value, bound, decimal);
+		} else if (value instanceof BigInteger) {
+			return compare(new BigDecimal((BigInteger) value), bound, decimal);
+		}
+		return compare(value.doubleValue(), bound);
+	}
+}
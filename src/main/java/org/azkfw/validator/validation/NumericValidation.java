@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.validation;
+
+import java.math.BigDecimal;
+
+/**
+ * このインターフェースは、数値をボクシングせずにチェックできるバリデーションを定義する為のインターフェースです。
+ * 
+ * <p>
+ * フィールドのすべてのバリデーションがこのインターフェースを実装している場合、 POJOのプリミティブ型フィールドと
+ * ストリーミングで読み込んだ数値はボクシングせずにチェックされます。 整数は {@link #isValid(long)}、
+ * <code>double</code> で表現できない桁数の小数と整数は {@link #isValid(BigDecimal)}、それ以外は {@link #isValid(double)}
+ * でチェックされます。 エラーの場合のみ値をボクシングして {@link #validate(ValidationContext)} でバリデーション結果を生成します。
+ * 各メソッドは対応する型の値を指定した {@link #validate(ValidationContext)} と同じ判定をしてください。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public interface NumericValidation extends Validation {
+
+	/**
+	 * 数値をチェックする。
+	 * 
+	 * @param value 値
+	 * @return 正常な場合、<code>true</code>
+	 */
+	public boolean isValid(final double value);
+
+	/**
+	 * 整数をチェックする。
+	 * 
+	 * @param value 値
+	 * @return 正常な場合、<code>true</code>
+	 */
+	public boolean isValid(final long value);
+
+	/**
+	 * 十進数をチェックする。
+	 * 
+	 * @param value 値
+	 * @return 正常な場合、<code>true</code>
+	 */
+	public boolean isValid(final BigDecimal value);
+
+}
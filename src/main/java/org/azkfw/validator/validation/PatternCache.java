@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.validation;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * このクラスは、コンパイル済みの正規表現をキャッシュするクラスです。
+ * 
+ * <p>
+ * ロックを使用せずに参照でき、最大サイズを超えた場合は登録の古い順に破棄します。 ヒット数、ミス数、破棄数を取得できます。
+ * 同じ正規表現が同時にコンパイルされた場合、先に登録されたものが使用されます。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class PatternCache {
+
+	/** デフォルトの最大サイズ */
+	public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+	/** デフォルトのキャッシュ */
+	private static final PatternCache DEFAULT = new PatternCache(DEFAULT_MAXIMUM_SIZE);
+
+	/** 最大サイズ */
+	private final int maximumSize;
+
+	private final ConcurrentMap<String, Pattern> patterns;
+
+	/** 登録順 */
+	private final Queue<String> order;
+
+	private final AtomicLong hitCount;
+	private final AtomicLong missCount;
+	private final AtomicLong evictionCount;
+
+	/**
+	 * デフォルトのキャッシュを取得する。
+	 * 
+	 * @return キャッシュ
+	 */
+	public static PatternCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param maximumSize 最大サイズ
+	 */
+	public PatternCache(final int maximumSize) {
+		this.maximumSize = Math.max(1, maximumSize);
+		patterns = new ConcurrentHashMap<String, Pattern>();
+		order = new ConcurrentLinkedQueue<String>();
+		hitCount = new AtomicLong();
+		missCount = new AtomicLong();
+		evictionCount = new AtomicLong();
+	}
+
+	/**
+	 * コンパイル済みの正規表現を取得する。
+	 * 
+	 * @param regex 正規表現
+	 * @return コンパイル済みの正規表現
+	 */
+	public Pattern get(final String regex) {
+		Pattern pattern = patterns.get(regex);
+		if (null != pattern) {
+			hitCount.incrementAndGet();
+			return pattern;
+		}
+
+		missCount.incrementAndGet();
+		pattern = Pattern.compile(regex);
+		Pattern current = patterns.putIfAbsent(regex, pattern);
+		if (null != current) {
+			return current;
+		}
+
+		order.offer(regex);
+		while (patterns.size() > maximumSize) {
+			String eldest = order.poll();
+			if (null == eldest) {
+				break;
+			}
+			if (null != patterns.remove(eldest)) {
+				evictionCount.incrementAndGet();
+			}
+		}
+		return pattern;
+	}
+
+	/**
+	 * キャッシュを破棄する。
+	 */
+	public void clear() {
+		String regex;
+		while (null != (regex = order.poll())) {
+			patterns.remove(regex);
+		}
+	}
+
+	/**
+	 * キャッシュ数を取得する。
+	 * 
+	 * @return キャッシュ数
+	 */
+	public int size() {
+		return patterns.size();
+	}
+
+	/**
+	 * 最大サイズを取得する。
+	 * 
+	 * @return 最大サイズ
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * ヒット数を取得する。
+	 * 
+	 * @return ヒット数
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * ミス数を取得する。
+	 * 
+	 * @return ミス数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * 破棄数を取得する。
+	 * 
+	 * @return 破棄数
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+}
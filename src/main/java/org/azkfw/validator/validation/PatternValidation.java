@@ -17,8 +17,6 @@
  */
 package org.azkfw.validator.validation;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.azkfw.validator.ValidationResult;
@@ -33,9 +31,10 @@ import org.azkfw.validator.ValidationResult;
 public final class PatternValidation extends AbstractValidation {
 
 	/** パターン */
-	private String pattern;
+	private final String pattern;
 
-	private static Map<String, Pattern> CASH_PATTERNS = new HashMap<String, Pattern>();
+	/** コンパイル済みのパターン */
+	private final Pattern compiledPattern;
 
 	/**
 	 * コンストラクタ
@@ -44,31 +43,50 @@ public final class PatternValidation extends AbstractValidation {
 	 * @param an アノテーション
 	 */
 	public PatternValidation(final String name, final org.azkfw.validator.annotation.Pattern an) {
-		super(name, an.order(), an.message());
-		pattern = an.value();
+		this(name, an.value(), an.order(), an.message());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param name 名前
+	 * @param pattern パターン(正規表現)
+	 * @param order 実行順
+	 * @param message メッセージ
+	 */
+	public PatternValidation(final String name, final String pattern, final int order, final String message) {
+		super(name, order, message);
+		this.pattern = pattern;
+		compiledPattern = PatternCache.getDefault().get(pattern);
+	}
+
+	/**
+	 * パターン(正規表現)を取得する。
+	 * 
+	 * @return パターン(正規表現)
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * コンパイル済みのパターンを取得する。
+	 * 
+	 * @return コンパイル済みのパターン
+	 */
+	public Pattern getCompiledPattern() {
+		return compiledPattern;
 	}
 
 	@Override
-	protected ValidationResult doValidate(final Object value) {
+	protected ValidationResult doValidate(final Object value, final ValidationContext context) {
 		if (null != value) {
 			if (!(value instanceof String)) {
-				String msg = getDecorateString(getMessage("Pattern.format"));
-				return ValidationResult.error(msg);
-			}
-
-			java.util.regex.Pattern p = null;
-			synchronized (CASH_PATTERNS) {
-				if (CASH_PATTERNS.containsKey(pattern)) {
-					p = CASH_PATTERNS.get(pattern);
-				} else {
-					p = java.util.regex.Pattern.compile(pattern);
-					CASH_PATTERNS.put(pattern, p);
-				}
+				return error("Pattern.format", context);
 			}
 
-			if (!p.matcher((String) value).matches()) {
-				String msg = getDecorateString(getMessage("Pattern.match"));
-				return ValidationResult.error(msg);
+			if (!compiledPattern.matcher((String) value).matches()) {
+				return error("Pattern.match", context);
 			}
 		}
 		return ValidationResult.success();
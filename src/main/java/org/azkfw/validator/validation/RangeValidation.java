@@ -17,6 +17,8 @@
  */
 package org.azkfw.validator.validation;
 
+import java.math.BigDecimal;
+
 import org.azkfw.validator.ValidationResult;
 import org.azkfw.validator.annotation.Range;
 
@@ -27,13 +29,19 @@ import org.azkfw.validator.annotation.Range;
  * @version 1.0.0 2015/02/13
  * @author kawakicchi
  */
-public final class RangeValidation extends AbstractValidation {
+public final class RangeValidation extends AbstractValidation implements NumericValidation {
 
 	/** 最小値 */
-	private double minimum;
+	private final double minimum;
 
 	/** 最大値 */
-	private double maximum;
+	private final double maximum;
+
+	/** 最小値の十進表記 */
+	private final BigDecimal minimumDecimal;
+
+	/** 最大値の十進表記 */
+	private final BigDecimal maximumDecimal;
 
 	/**
 	 * コンストラクタ
@@ -42,25 +50,73 @@ public final class RangeValidation extends AbstractValidation {
 	 * @param an アノテーション
 	 */
 	public RangeValidation(final String name, final Range an) {
-		super(name, an.order(), an.message());
-		minimum = an.min();
-		maximum = an.max();
+		this(name, an.min(), an.max(), an.order(), an.message());
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param name 名前
+	 * @param minimum 最小値
+	 * @param maximum 最大値
+	 * @param order 実行順
+	 * @param message メッセージ
+	 */
+	public RangeValidation(final String name, final double minimum, final double maximum, final int order,
+			final String message) {
+		super(name, order, message);
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.minimumDecimal = Numbers.decimal(minimum);
+		this.maximumDecimal = Numbers.decimal(maximum);
+	}
+
+	/**
+	 * 最小値を取得する。
+	 * 
+	 * @return 最小値
+	 */
+	public double getMinimum() {
+		return minimum;
+	}
+
+	/**
+	 * 最大値を取得する。
+	 * 
+	 * @return 最大値
+	 */
+	public double getMaximum() {
+		return maximum;
+	}
+
+	@Override
+	public boolean isValid(final double value) {
+		return !(value < minimum) && !(value > maximum);
+	}
+
+	@Override
+	public boolean isValid(final long value) {
+		return Numbers.compare(value, minimum, minimumDecimal) >= 0
+				&& Numbers.compare(value, maximum, maximumDecimal) <= 0;
+	}
+
+	@Override
+	public boolean isValid(final BigDecimal value) {
+		return Numbers.compare(value, minimum, minimumDecimal) >= 0
+				&& Numbers.compare(value, maximum, maximumDecimal) <= 0;
 	}
 
 	@Override
-	protected ValidationResult doValidate(final Object value) {
+	protected ValidationResult doValidate(final Object value, final ValidationContext context) {
 		if (null != value) {
-			if (!(value instanceof Double)) {
-				String msg = getDecorateString(getMessage("Range.format"));
-				return ValidationResult.error(msg);
+			if (!(value instanceof Number)) {
+				return error("Range.format", context);
 			}
-			if ((Double) value < minimum) {
-				String msg = getDecorateString(getMessage("Range.limit.minimum"));
-				return ValidationResult.error(msg);
+			if (Numbers.compare((Number) value, minimum, minimumDecimal) < 0) {
+				return error("Range.limit.minimum", context);
 			}
-			if ((Double) value > maximum) {
-				String msg = getDecorateString(getMessage("Range.limit.maximum"));
-				return ValidationResult.error(msg);
+			if (Numbers.compare((Number) value, maximum, maximumDecimal) > 0) {
+				return error("Range.limit.maximum", context);
 			}
 		}
 		return ValidationResult.success();
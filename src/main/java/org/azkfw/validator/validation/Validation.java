@@ -17,14 +17,17 @@
  */
 package org.azkfw.validator.validation;
 
-import java.util.Map;
-
 import org.azkfw.validator.ValidationResult;
-import org.azkfw.validator.bundle.MessageBundle;
 
 /**
  * このインターフェースは、バリデーション機能を定義する為のインターフェースです。
  * 
+ * <p>
+ * 実装クラスは不変とし、呼び出し毎の状態は {@link ValidationContext} から取得してください。
+ * 一つのインスタンスが複数スレッドから同時に呼び出されます。 状態を持つユーザ定義バリデーションは
+ * {@link org.azkfw.validator.annotation.NotThreadSafe} を付与するとスレッド毎のインスタンスで呼び出されます。
+ * </p>
+ * 
  * @since 1.0.0
  * @version 1.0.0 2015/02/13
  * @author kawakicchi
@@ -34,11 +37,10 @@ public interface Validation {
 	/**
 	 * バリデーションを行う。
 	 * 
-	 * @param value 値
-	 * @param keyword キーワード
+	 * @param context コンテキスト
 	 * @return バリデーション結果
 	 */
-	public ValidationResult validate(final Object value, final Map<String, Object> keyword);
+	public ValidationResult validate(final ValidationContext context);
 
 	/**
 	 * 実行順を取得する。
@@ -47,6 +49,4 @@ public interface Validation {
 	 */
 	public int order();
 
-	public void setMessageBundle(final MessageBundle bundle);
-
 }
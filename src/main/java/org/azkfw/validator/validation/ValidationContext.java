@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.validation;
+
+import java.util.Locale;
+
+import org.azkfw.validator.bundle.MessageBundle;
+
+/**
+ * このクラスは、1回のバリデーション呼び出しの状態を保持するクラスです。
+ * 
+ * <p>
+ * バリデーションの呼び出し毎の状態はすべてこのクラスで受け渡されるため、{@link Validation} の実装は状態を持たず、
+ * 複数スレッドから同時に呼び出すことができます。
+ * </p>
+ * 
+ * <p>
+ * {@link ValidationPath} を指定して生成した場合、パス文字列は {@link #getPath()} の初回呼び出し時に生成されます。
+ * パスは呼び出し中に変化する為、{@link #getPath()} はバリデーションの呼び出し中に使用してください。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class ValidationContext {
+
+	/** 値 */
+	private final Object value;
+
+	/** 名前 */
+	private final String name;
+
+	/** パス */
+	private String path;
+
+	/** パス(未生成の場合) */
+	private final ValidationPath pathStack;
+
+	/** ロケール */
+	private final Locale locale;
+
+	/** メッセージバンドル */
+	private final MessageBundle messages;
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param value 値
+	 * @param name 名前
+	 * @param path パス
+	 * @param locale ロケール。<code>null</code>の場合、デフォルトロケール
+	 * @param messages メッセージバンドル
+	 */
+	public ValidationContext(final Object value, final String name, final String path, final Locale locale,
+			final MessageBundle messages) {
+		this.value = value;
+		this.name = name;
+		this.path = path;
+		this.pathStack = null;
+		this.locale = locale;
+		this.messages = messages;
+	}
+
+	/**
+	 * コンストラクタ
+	 * 
+	 * @param value 値
+	 * @param name 名前
+	 * @param path パス
+	 * @param locale ロケール。<code>null</code>の場合、デフォルトロケール
+	 * @param messages メッセージバンドル
+	 */
+	public ValidationContext(final Object value, final String name, final ValidationPath path, final Locale locale,
+			final MessageBundle messages) {
+		this.value = value;
+		this.name = name;
+		this.path = null;
+		this.pathStack = path;
+		this.locale = locale;
+		this.messages = messages;
+	}
+
+	/**
+	 * 値を取得する。
+	 * 
+	 * @return 値
+	 */
+	public Object getValue() {
+		return value;
+	}
+
+	/**
+	 * 名前を取得する。
+	 * 
+	 * @return 名前
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * パスを取得する。
+	 * 
+	 * @return パス(JSON Pointer)
+	 */
+	public String getPath() {
+		if (null == path && null != pathStack) {
+			path = pathStack.toString();
+		}
+		return path;
+	}
+
+	/**
+	 * ロケールを取得する。
+	 * 
+	 * @return ロケール。<code>null</code>の場合、デフォルトロケール
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * メッセージバンドルを取得する。
+	 * 
+	 * @return メッセージバンドル
+	 */
+	public MessageBundle getMessageBundle() {
+		return messages;
+	}
+}
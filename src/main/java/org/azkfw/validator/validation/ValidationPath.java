@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator.validation;
+
+/**
+ * このクラスは、バリデーション中の位置を保持する再利用可能なパスクラスです。
+ * 
+ * <p>
+ * フィールド名と配列インデックスをスタックとして保持し、文字列は {@link #toString()} の呼び出し時にのみ生成します。
+ * 文字列は RFC 6901 の JSON Pointer 形式(例: <code>/users/0/name</code>)です。 ルートは空文字列になります。
+ * </p>
+ * 
+ * <p>
+ * このクラスはスレッドセーフではありません。 他のスレッドに渡す場合は {@link #copy()} で複製してください。
+ * </p>
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+public final class ValidationPath {
+
+	/** 初期容量 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** フィールド名(インデックスの場合、<code>null</code>) */
+	private String[] names;
+
+	/** インデックス */
+	private int[] indices;
+
+	/** 深さ */
+	private int depth;
+
+	/**
+	 * コンストラクタ
+	 */
+	public ValidationPath() {
+		this(INITIAL_CAPACITY);
+	}
+
+	private ValidationPath(final int capacity) {
+		names = new String[capacity];
+		indices = new int[capacity];
+		depth = 0;
+	}
+
+	/**
+	 * フィールド名を追加する。
+	 * 
+	 * @param name フィールド名
+	 */
+	public void push(final String name) {
+		ensureCapacity();
+		names[depth] = name;
+		indices[depth] = -1;
+		depth++;
+	}
+
+	/**
+	 * 配列インデックスを追加する。
+	 * 
+	 * @param index インデックス
+	 */
+	public void push(final int index) {
+		ensureCapacity();
+		names[depth] = null;
+		indices[depth] = index;
+		depth++;
+	}
+
+	/**
+	 * 末尾の要素を削除する。
+	 */
+	public void pop() {
+		depth--;
+		names[depth] = null;
+	}
+
+	/**
+	 * 深さを取得する。
+	 * 
+	 * @return 深さ
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * パスを複製する。
+	 * 
+	 * @return 複製したパス
+	 */
+	public ValidationPath copy() {
+		ValidationPath path = new ValidationPath(Math.max(INITIAL_CAPACITY, depth * 2));
+		System.arraycopy(names, 0, path.names, 0, depth);
+		System.arraycopy(indices, 0, path.indices, 0, depth);
+		path.depth = depth;
+		return path;
+	}
+
+	/**
+	 * JSON Pointer 形式の文字列を生成する。
+	 * 
+	 * @return JSON Pointer
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder(depth * 8);
+		for (int i = 0; i < depth; i++) {
+			s.append('/');
+			String name = names[i];
+			if (null == name) {
+				s.append(indices[i]);
+			} else if (-1 == name.indexOf('~') && -1 == name.indexOf('/')) {
+				s.append(name);
+			} else {
+				for (int j = 0; j < name.length(); j++) {
+					char c = name.charAt(j);
+					if ('~' == c) {
+						s.append("~0");
+					} else if ('/' == c) {
+						s.append("~1");
+					} else {
+						s.append(c);
+					}
+				}
+			}
+		}
+		return s.toString();
+	}
+
+	private void ensureCapacity() {
+		if (depth == names.length) {
+			String[] newNames = new String[depth * 2];
+			int[] newIndices = new int[depth * 2];
+			System.arraycopy(names, 0, newNames, 0, depth);
+			System.arraycopy(indices, 0, newIndices, 0, depth);
+			names = newNames;
+			indices = newIndices;
+		}
+	}
+}
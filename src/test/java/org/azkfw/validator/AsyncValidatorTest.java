@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.azkfw.validator.ValidatorTest.UserListResponse;
+import org.azkfw.validator.annotation.CustomValidate;
+import org.azkfw.validator.annotation.Required;
+import org.azkfw.validator.validation.AbstractValidation;
+import org.azkfw.validator.validation.ValidationContext;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@RunWith(JUnit4.class)
+public class AsyncValidatorTest extends TestCase {
+
+	@Test
+	public void testValidate() throws Exception {
+		AsyncValidator validator = new AsyncValidator(new Validator());
+		List<ValidationResult> results = validator.validate("{\"result\":true,\"users\":[{}]}",
+				UserListResponse.class).get(10, TimeUnit.SECONDS);
+		assertEquals(1, results.size());
+		assertEquals("/users/0/name", results.get(0).getPath());
+	}
+
+	@Test
+	public void testBoundedConcurrency() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			AsyncValidator validator = new AsyncValidator(new Validator(), pool, 2);
+
+			List<String> documents = new ArrayList<String>();
+			for (int i = 0; i < 100; i++) {
+				documents.add((0 == i % 2) ? "{}" : "{\"value\":\"a\"}");
+			}
+			List<List<ValidationResult>> results = validator.validateAll(documents, ProbeDto.class).get(30,
+					TimeUnit.SECONDS);
+			assertEquals(100, results.size());
+			for (int i = 0; i < 100; i++) {
+				assertEquals((0 == i % 2) ? 1 : 0, results.get(i).size());
+			}
+			assertTrue(2 >= ProbeValidation.PEAK.get());
+			assertEquals(0, validator.getPendingCount());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	public static class ProbeDto {
+
+		@Required(order = 2)
+		@CustomValidate(ProbeValidation.class)
+		private String value;
+	}
+
+	public static class ProbeValidation extends AbstractValidation {
+
+		private static final AtomicInteger ACTIVE = new AtomicInteger();
+
+		private static final AtomicInteger PEAK = new AtomicInteger();
+
+		@Override
+		protected ValidationResult doValidate(final Object value, final ValidationContext context) {
+			int n = ACTIVE.incrementAndGet();
+			for (int peak = PEAK.get(); peak < n && !PEAK.compareAndSet(peak, n); peak = PEAK.get()) {
+			}
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} finally {
+				ACTIVE.decrementAndGet();
+			}
+			return ValidationResult.success();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.azkfw.validator.ValidatorTest.UserListResponse;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@RunWith(JUnit4.class)
+public class BatchValidatorTest extends TestCase {
+
+	private static final String DATA = "{\"result\":true,\"users\":[{\"name\":\"a\"}]}\r\n" //
+			+ "\n" //
+			+ "{\"result\":true,\"users\":[{}]}\n" //
+			+ "{\"users\":[{\"name\":\"\"}]}";
+
+	@Test
+	public void testReader() throws Exception {
+		BatchValidator validator = new BatchValidator(new Validator());
+		Listener listener = new Listener();
+		assertEquals(3, validator.validate(new StringReader(DATA), UserListResponse.class, listener));
+		assertRecords(listener.records);
+	}
+
+	@Test
+	public void testPipeline() throws Exception {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			s.append(DATA).append('\n');
+		}
+
+		BatchValidator validator = new BatchValidator(new Validator());
+		validator.setPipeline(true);
+		validator.setQueueCapacity(2);
+		Listener listener = new Listener();
+		assertEquals(3000, validator.validate(new ByteArrayInputStream(s.toString().getBytes("UTF-8")),
+				UserListResponse.class, listener));
+		assertEquals(3000, listener.records.size());
+		for (int i = 0; i < 1000; i++) {
+			assertRecords(listener.records.subList(i * 3, i * 3 + 3));
+			assertEquals(i * 3, listener.records.get(i * 3).getIndex());
+		}
+	}
+
+	@Test
+	public void testPipelineListenerError() throws Exception {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			s.append(DATA).append('\n');
+		}
+		final List<Thread> readers = new ArrayList<Thread>();
+		Reader reader = new FilterReader(new StringReader(s.toString())) {
+			@Override
+			public int read(final char[] cbuf, final int off, final int len) throws IOException {
+				synchronized (readers) {
+					if (!readers.contains(Thread.currentThread())) {
+						readers.add(Thread.currentThread());
+					}
+				}
+				return super.read(cbuf, off, Math.min(len, 64));
+			}
+		};
+
+		BatchValidator validator = new BatchValidator(new Validator());
+		validator.setPipeline(true);
+		validator.setQueueCapacity(1);
+		final RuntimeException error = new IllegalStateException("listener");
+		try {
+			validator.validate(reader, UserListResponse.class, new RecordValidationListener() {
+				@Override
+				public void onRecord(final RecordValidationResult result) {
+					throw error;
+				}
+			});
+			fail();
+		} catch (IllegalStateException ex) {
+			assertSame(error, ex);
+		}
+		assertEquals(1, readers.size());
+		assertFalse(readers.get(0).isAlive());
+		assertTrue(-1 != reader.read());
+	}
+
+	@Test
+	public void testIterable() {
+		BatchValidator validator = new BatchValidator(new Validator());
+		Listener listener = new Listener();
+		assertEquals(3, validator.validate(Arrays.asList(DATA.split("\n+")), UserListResponse.class, listener));
+		assertRecords(listener.records);
+	}
+
+	private static void assertRecords(final List<RecordValidationResult> records) {
+		assertEquals(3, records.size());
+		assertTrue(records.get(0).isValid());
+		assertEquals(1, records.get(1).getResults().size());
+		assertEquals("/users/0/name", records.get(1).getResults().get(0).getPath());
+		assertEquals(2, records.get(2).getResults().size());
+		assertEquals(records.get(0).getIndex() + 2, records.get(2).getIndex());
+	}
+
+	private static class Listener implements RecordValidationListener {
+		private final List<RecordValidationResult> records = new ArrayList<RecordValidationResult>();
+
+		@Override
+		public void onRecord(final RecordValidationResult result) {
+			records.add(result);
+		}
+	}
+}
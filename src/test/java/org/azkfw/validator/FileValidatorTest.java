@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+import org.azkfw.validator.ValidatorTest.UserDto;
+import org.azkfw.validator.ValidatorTest.UserListResponse;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@RunWith(JUnit4.class)
+public class FileValidatorTest extends TestCase {
+
+	@Test
+	public void testObject() throws Exception {
+		String data = "{\"result\":true,\"users\":[{\"name\":\"a\"},{\"name\":\"\"}]}";
+		File file = write(data);
+		try {
+			FileValidator validator = new FileValidator(new Validator());
+			validator.setChunkSize(7);
+			validator.setParallel(true);
+			List<ValidationResult> results = validator.validate(file, UserListResponse.class);
+			assertEquals(1, results.size());
+			assertEquals("/users/1/name", results.get(0).getPath());
+			assertEquals(data.lastIndexOf("\"\"") + 1, results.get(0).getOffset());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		StringBuilder s = new StringBuilder("[\n");
+		for (int i = 0; i < 1000; i++) {
+			if (0 < i) {
+				s.append(",\n");
+			}
+			if (0 == i % 7) {
+				s.append("{\"aaaa\":\"\\\"]\"}");
+			} else {
+				s.append("{\"name\":\"user,").append(i).append("\"}");
+			}
+		}
+		s.append("\n]");
+		String data = s.toString();
+		File file = write(data);
+		try {
+			Validator validator = new Validator();
+			validator.setForkJoinPool(new ForkJoinPool(4));
+			FileValidator fileValidator = new FileValidator(validator);
+			fileValidator.setChunkSize(1000);
+			List<ValidationResult> sequential = fileValidator.validate(file, UserDto.class);
+			fileValidator.setParallel(true);
+			List<ValidationResult> parallel = fileValidator.validate(file, UserDto.class);
+
+			assertEquals(143, sequential.size());
+			assertEquals(sequential.size(), parallel.size());
+			for (int i = 0; i < sequential.size(); i++) {
+				assertEquals("/" + (i * 7) + "/name", parallel.get(i).getPath());
+				assertEquals(sequential.get(i).getPath(), parallel.get(i).getPath());
+				assertEquals(sequential.get(i).getOffset(), parallel.get(i).getOffset());
+				assertEquals('}', data.charAt((int) parallel.get(i).getOffset()));
+			}
+
+			validator.setMaxErrors(5);
+			parallel = fileValidator.validate(file, UserDto.class);
+			assertEquals(5, parallel.size());
+			assertEquals("/28/name", parallel.get(4).getPath());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testErrors() throws Exception {
+		File file = write("[{\"name\":\"a\"},{\"name\":\"b\"},{\"name\":");
+		try {
+			FileValidator validator = new FileValidator(new Validator());
+			validator.setChunkSize(7);
+			assertEquals(1, validator.validate(file, UserDto.class).size());
+			validator.setParallel(true);
+			assertEquals(1, validator.validate(file, UserDto.class).size());
+		} finally {
+			file.delete();
+		}
+
+		File directory = file.getParentFile();
+		try {
+			new FileValidator(new Validator()).validate(directory, UserDto.class);
+			fail();
+		} catch (IOException ex) {
+		}
+	}
+
+	private static File write(final String data) throws Exception {
+		File file = File.createTempFile("validator", ".json");
+		OutputStream stream = new FileOutputStream(file);
+		try {
+			stream.write(data.getBytes("UTF-8"));
+		} finally {
+			stream.close();
+		}
+		return file;
+	}
+}
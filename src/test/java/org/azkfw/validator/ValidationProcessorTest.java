@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.azkfw.validator;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+import org.azkfw.validator.ValidatorTest.UserListResponse;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * 
+ * @since 1.0.0
+ * @version 1.0.0 2015/02/13
+ * @author kawakicchi
+ */
+@RunWith(JUnit4.class)
+public class ValidationProcessorTest extends TestCase {
+
+	private static final String VALID = "{\"result\":true,\"users\":[{\"name\":\"a\"}]}";
+	private static final String INVALID = "{\"result\":true,\"users\":[{}]}";
+
+	@Test
+	public void testOrdered() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			ValidationProcessor processor = new ValidationProcessor(new Validator(), UserListResponse.class);
+			processor.setExecutor(pool);
+			processor.setConcurrency(8);
+			Collector collector = new Collector(1);
+			processor.subscribe(collector);
+
+			SubmissionPublisher<Object> publisher = new SubmissionPublisher<Object>(pool, 4);
+			publisher.subscribe(processor);
+			for (int i = 0; i < 200; i++) {
+				publisher.submit((0 == i % 3) ? INVALID : VALID.getBytes("UTF-8"));
+			}
+			publisher.close();
+
+			assertTrue(collector.latch.await(30, TimeUnit.SECONDS));
+			assertNull(collector.error);
+			assertEquals(200, collector.results.size());
+			for (int i = 0; i < 200; i++) {
+				RecordValidationResult result = collector.results.get(i);
+				assertEquals(i, result.getIndex());
+				assertEquals(0 != i % 3, result.isValid());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testBackpressure() throws Exception {
+		ValidationProcessor processor = new ValidationProcessor(new Validator(), UserListResponse.class);
+		processor.setExecutor(new java.util.concurrent.Executor() {
+			@Override
+			public void execute(final Runnable command) {
+				command.run();
+			}
+		});
+		processor.setConcurrency(4);
+		processor.setOrdered(false);
+
+		final AtomicLong upstreamRequested = new AtomicLong();
+		processor.onSubscribe(new Flow.Subscription() {
+			@Override
+			public void request(final long n) {
+				upstreamRequested.addAndGet(n);
+			}
+
+			@Override
+			public void cancel() {
+			}
+		});
+		Collector collector = new Collector(0);
+		processor.subscribe(collector);
+		assertEquals(4, upstreamRequested.get());
+
+		for (int i = 0; i < 4; i++) {
+			processor.onNext(INVALID);
+		}
+		assertEquals(0, collector.results.size());
+		assertEquals(4, upstreamRequested.get());
+
+		collector.subscription.request(2);
+		assertEquals(2, collector.results.size());
+		assertEquals(6, upstreamRequested.get());
+
+		processor.onComplete();
+		assertEquals(1, collector.latch.getCount());
+		collector.subscription.request(Long.MAX_VALUE);
+		assertEquals(4, collector.results.size());
+		assertEquals(0, collector.latch.getCount());
+	}
+
+	@Test
+	public void testRequestOverflow() throws Exception {
+		assertEquals(Long.MAX_VALUE, ValidationProcessor.addCap(5, Long.MAX_VALUE - 1));
+		assertEquals(Long.MAX_VALUE, ValidationProcessor.addCap(Long.MAX_VALUE - 1, Long.MAX_VALUE - 1));
+		assertEquals(Long.MAX_VALUE, ValidationProcessor.addCap(1, Long.MAX_VALUE - 1));
+		assertEquals(7, ValidationProcessor.addCap(5, 2));
+
+		ValidationProcessor processor = new ValidationProcessor(new Validator(), UserListResponse.class);
+		processor.setExecutor(new java.util.concurrent.Executor() {
+			@Override
+			public void execute(final Runnable command) {
+				command.run();
+			}
+		});
+		processor.setConcurrency(4);
+		processor.onSubscribe(new Flow.Subscription() {
+			@Override
+			public void request(final long n) {
+			}
+
+			@Override
+			public void cancel() {
+			}
+		});
+		Collector collector = new Collector(0);
+		processor.subscribe(collector);
+		collector.subscription.request(5);
+		collector.subscription.request(Long.MAX_VALUE - 1);
+		for (int i = 0; i < 20; i++) {
+			processor.onNext(VALID);
+		}
+		processor.onComplete();
+		assertEquals(20, collector.results.size());
+		assertEquals(0, collector.latch.getCount());
+		assertNull(collector.error);
+	}
+
+	private static class Collector implements Flow.Subscriber<RecordValidationResult> {
+		private final List<RecordValidationResult> results = new CopyOnWriteArrayList<RecordValidationResult>();
+		private final CountDownLatch latch = new CountDownLatch(1);
+		private final long batch;
+		private volatile Flow.Subscription subscription;
+		private volatile Throwable error;
+
+		private Collector(final long batch) {
+			this.batch = batch;
+		}
+
+		@Override
+		public void onSubscribe(final Flow.Subscription subscription) {
+			this.subscription = subscription;
+			if (0 < batch) {
+				subscription.request(batch);
+			}
+		}
+
+		@Override
+		public void onNext(final RecordValidationResult item) {
+			results.add(item);
+			if (0 < batch) {
+				subscription.request(batch);
+			}
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			error = throwable;
+			latch.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			latch.countDown();
+		}
+	}
+}
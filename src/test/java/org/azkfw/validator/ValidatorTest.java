@@ -17,16 +17,55 @@
  */
 package org.azkfw.validator;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
 
 import org.azkfw.validator.annotation.CustomValidate;
+import org.azkfw.validator.annotation.Maximum;
+import org.azkfw.validator.annotation.Minimum;
 import org.azkfw.validator.annotation.NameBindLabel;
 import org.azkfw.validator.annotation.NotEmpty;
 import org.azkfw.validator.annotation.NotNull;
+import org.azkfw.validator.annotation.NotThreadSafe;
+import org.azkfw.validator.annotation.OrderIndependent;
+import org.azkfw.validator.annotation.Pattern;
+import org.azkfw.validator.annotation.Range;
 import org.azkfw.validator.annotation.Required;
+import org.azkfw.validator.bundle.MessageBundle;
+import org.azkfw.validator.bundle.MessageTemplate;
+import org.azkfw.validator.metrics.DefaultValidationMetrics;
+import org.azkfw.validator.metrics.ValidationStats;
 import org.azkfw.validator.validation.AbstractValidation;
+import org.azkfw.validator.validation.InitializableValidation;
+import org.azkfw.validator.validation.MaximumValidation;
+import org.azkfw.validator.validation.NotNullValidation;
+import org.azkfw.validator.validation.PatternCache;
+import org.azkfw.validator.validation.PatternValidation;
+import org.azkfw.validator.validation.RequiredValidation;
+import org.azkfw.validator.validation.Validation;
+import org.azkfw.validator.validation.ValidationContext;
+import org.azkfw.validator.validation.ValidationPath;
 import org.codehaus.jackson.annotate.JsonProperty;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -45,7 +84,903 @@ public class ValidatorTest extends TestCase {
 	public void test() {
 		String data = "{ \"result\":true , \"users\":[{ \"aaaa\":\"aa\" }]}";
 		Validator validator = new Validator();
+		List<ValidationResult> results = validator.validate(data, UserListResponse.class);
+		assertEquals(1, results.size());
+		assertEquals("/users/0/name", results.get(0).getPath());
+	}
+
+	@Test
+	public void testPlanCache() throws Exception {
+		final Validator validator = new Validator();
+		final ClassValidationPlan[] plans = new ClassValidationPlan[8];
+		final CountDownLatch ready = new CountDownLatch(1);
+		Thread[] threads = new Thread[plans.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						ready.await();
+						plans[index] = validator.getPlan(EngineDto.class);
+					} catch (Exception ex) {
+						throw new IllegalStateException(ex);
+					}
+				}
+			});
+			threads[i].start();
+		}
+		ready.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (ClassValidationPlan plan : plans) {
+			assertSame(plans[0], plan);
+		}
+		assertSame(plans[0], validator.getPlan(EngineDto.class));
+		assertNotSame(plans[0], new Validator().getPlan(EngineDto.class));
+		assertEquals(0, validator.validate("{\"code\":\"A\",\"mail\":\"a@b\"}", EngineDto.class).size());
+	}
+
+	@Test
+	public void testStream() {
+		String data = "{ \"result\":true , \"skip\":{\"a\":[1,{\"b\":2}]}, \"users\":[{ \"aaaa\":\"aa\" }, [1], { \"name\":\"\" }]}";
+		Validator validator = new Validator();
+		List<ValidationResult> results = validator.validate(new StringReader(data), UserListResponse.class);
+		assertEquals(2, results.size());
+		assertEquals("Required.required", results.get(0).getMessageId());
+		assertEquals("/users/0/name", results.get(0).getPath());
+		assertEquals("NotEmpty.string", results.get(1).getMessageId());
+		assertEquals("/users/2/name", results.get(1).getPath());
+	}
+
+	@Test
+	public void testStreamOrder() {
+		String[] data = { "{\"tags\":[],\"age\":151,\"mail\":\"ab\"}",
+				"{\"rate\":2,\"score\":-1,\"code\":\"\",\"mail\":null}" };
+		Validator validator = new Validator();
+		for (String json : data) {
+			List<ValidationResult> expected = validator.validate(json, EngineDto.class);
+			List<ValidationResult> actual = validator.validate(new StringReader(json), EngineDto.class);
+			assertTrue(json, 3 < expected.size());
+			assertEquals(json, expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(json, expected.get(i).getPath(), actual.get(i).getPath());
+				assertEquals(json, expected.get(i).getMessageId(), actual.get(i).getMessageId());
+			}
+		}
+		assertEquals("/code", validator.validate(new StringReader(data[0]), EngineDto.class).get(0).getPath());
+
+		String[] capped = { "{\"mail\":\"ab\",\"code\":\"\"}", data[0], data[1],
+				"{\"score\":101,\"tags\":[],\"rate\":2,\"age\":-1,\"code\":\"A\"}" };
+		for (int max = 1; max <= 3; max++) {
+			validator.setMaxErrors(max);
+			for (String json : capped) {
+				assertSamePaths(json, validator.validate(json, EngineDto.class),
+						validator.validate(new StringReader(json), EngineDto.class));
+			}
+		}
+		validator.setMaxErrors(Integer.MAX_VALUE);
+		validator.setMode(ValidationMode.FAIL_FAST);
+		for (String json : capped) {
+			assertSamePaths(json, validator.validate(json, EngineDto.class),
+					validator.validate(new StringReader(json), EngineDto.class));
+		}
+		assertEquals("/code", validator.validate(new StringReader(capped[0]), EngineDto.class).get(0).getPath());
+
+		String nested = "{\"users\":[{\"name\":\"\"},{}],\"errorCode\":1}";
+		List<ValidationResult> results = validator.validate(new StringReader(nested), UserListResponse.class);
+		assertSamePaths(nested, validator.validate(nested, UserListResponse.class), results);
+		assertEquals("/result", results.get(0).getPath());
+		validator.setMode(ValidationMode.COLLECT_ALL);
+		validator.setMaxErrors(2);
+		assertSamePaths(nested, validator.validate(nested, UserListResponse.class),
+				validator.validate(new StringReader(nested), UserListResponse.class));
+
+		validator.setMode(ValidationMode.FAIL_FAST);
+		String truncated = "{\"result\":true,\"users\":[{},{},";
+		results = validator.validate(new StringReader(truncated), UserListResponse.class);
+		assertEquals(1, results.size());
+		assertEquals("/users/0/name", results.get(0).getPath());
+	}
+
+	@Test
+	public void testStreamErrors() {
+		Validator validator = new Validator();
+		String[] data = { "", "{\"users\":[{\"name\":\"a\"}", "{\"users\":[{\"name\":\"a" };
+		for (String json : data) {
+			List<ValidationResult> results = validator.validate(new StringReader(json), UserListResponse.class);
+			assertEquals(json, 1, results.size());
+			assertEquals(json, "Validate error.[No json format]", results.get(0).getMessage());
+		}
+
+		Reader broken = new Reader() {
+			private boolean first = true;
+
+			@Override
+			public int read(final char[] buffer, final int offset, final int length) throws IOException {
+				if (first) {
+					first = false;
+					String head = "{\"users\":[";
+					head.getChars(0, head.length(), buffer, offset);
+					return head.length();
+				}
+				throw new IOException("broken");
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		try {
+			validator.validate(broken, UserListResponse.class);
+			fail();
+		} catch (UncheckedIOException ex) {
+			assertEquals("broken", ex.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testBytesErrors() throws Exception {
+		Validator validator = new Validator();
+		byte[] data = "{\"users\":[{\"name\":\"a".getBytes("UTF-8");
+		assertEquals(1, validator.validate(data, UserListResponse.class).size());
+		assertEquals(1, validator.validate(ByteBuffer.allocateDirect(data.length).put(data).flip(),
+				UserListResponse.class).size());
+		assertEquals(1, validator.validate(new byte[0], UserListResponse.class).size());
+
+		InputStream broken = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("broken");
+			}
+		};
+		try {
+			validator.validate(broken, UserListResponse.class);
+			fail();
+		} catch (UncheckedIOException ex) {
+			assertEquals("broken", ex.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testBytes() throws Exception {
+		String data = "{ \"result\":true , \"users\":[{ \"name\":\"名前\" }, { \"name\":\"\" }]}";
+		byte[] bytes = data.getBytes("UTF-8");
+		Validator validator = new Validator();
+
+		List<ValidationResult> results = validator.validate(bytes, UserListResponse.class);
+		assertEquals(1, results.size());
+		assertEquals("/users/1/name", results.get(0).getPath());
+
+		results = validator.validate(new java.io.ByteArrayInputStream(bytes), UserListResponse.class);
+		assertEquals("/users/1/name", results.get(0).getPath());
+
+		java.nio.ByteBuffer direct = java.nio.ByteBuffer.allocateDirect(bytes.length + 2);
+		direct.put((byte) ' ').put(bytes).flip();
+		direct.position(1);
+		results = validator.validate(direct, UserListResponse.class);
+		assertEquals("/users/1/name", results.get(0).getPath());
+		assertEquals(1, direct.position());
+
+		byte[] padded = new byte[bytes.length + 4];
+		System.arraycopy(bytes, 0, padded, 2, bytes.length);
+		java.nio.ByteBuffer heap = java.nio.ByteBuffer.wrap(padded, 2, bytes.length).slice();
+		results = validator.validate(heap, UserListResponse.class);
+		assertEquals(1, results.size());
+		assertEquals("/users/1/name", results.get(0).getPath());
+	}
+
+	@Test
+	public void testMetrics() {
+		String data = "{ \"result\":true , \"users\":[{ \"aaaa\":\"aa\" }]}";
+		DefaultValidationMetrics metrics = new DefaultValidationMetrics();
+		Validator validator = new Validator();
+		validator.setEngine(ValidationEngine.COMPILED);
+		validator.setMetrics(metrics);
+		validator.validate(data, UserListResponse.class);
+		validator.validate(new StringReader(data), UserListResponse.class);
+
+		ValidationStats document = metrics.getDocumentStats(UserListResponse.class);
+		assertEquals(2, document.getCount());
+		assertEquals(1.0, document.getFailureRate());
+		assertEquals(2, metrics.getObjectStats(UserDto.class).getCount());
+		assertEquals(2, metrics.getRuleStats(NotNullValidation.class).getCount());
+		assertEquals(0, metrics.getRuleStats(NotNullValidation.class).getFailureCount());
+		assertEquals(2, metrics.getRuleStats(RequiredValidation.class).getFailureCount());
+		assertEquals(2, metrics.getRuleStats(CustomVali.class).getCount());
+		assertTrue(0 < document.getPercentileNanos(99));
+
+		validator.setMetrics(null);
 		validator.validate(data, UserListResponse.class);
+		assertEquals(2, document.getCount());
+	}
+
+	@Test
+	public void testFailFast() {
+		String data = "{ \"result\":true , \"users\":[{}, {}, {}]}";
+		Validator validator = new Validator();
+		assertEquals(3, validator.validate(data, UserListResponse.class).size());
+		assertEquals(3, validator.validate(new StringReader(data), UserListResponse.class).size());
+
+		validator.setMode(ValidationMode.FAIL_FAST);
+		List<ValidationResult> results = validator.validate(data, UserListResponse.class);
+		assertEquals(1, results.size());
+		assertEquals("/users/0/name", results.get(0).getPath());
+		assertEquals(1, validator.validate(new StringReader(data), UserListResponse.class).size());
+	}
+
+	@Test
+	public void testMaxErrors() {
+		String data = "{ \"result\":true , \"users\":[{}, {}, {}, {}]}";
+		Validator validator = new Validator();
+		validator.setMaxErrors(2);
+		assertEquals(2, validator.validate(data, UserListResponse.class).size());
+		assertEquals(2, validator.validate(new StringReader(data), UserListResponse.class).size());
+	}
+
+	@Test
+	public void testNoJsonFormat() {
+		Validator validator = new Validator();
+		assertEquals(1, validator.validate("{ \"result\": ", UserListResponse.class).size());
+		assertEquals(1, validator.validate(new StringReader("{ \"result\": "), UserListResponse.class).size());
+	}
+
+	@Test
+	public void testParallel() {
+		List<Object> users = new ArrayList<Object>();
+		for (int i = 0; i < 1000; i++) {
+			Map<String, Object> user = new HashMap<String, Object>();
+			if (0 != i % 7) {
+				user.put("name", "user" + i);
+			}
+			users.add(user);
+		}
+		Map<String, Object> data = new HashMap<String, Object>();
+		data.put("result", Boolean.TRUE);
+		data.put("users", users);
+
+		Validator sequential = new Validator();
+		Validator parallel = new Validator();
+		parallel.setParallelThreshold(10);
+		parallel.setForkJoinPool(new ForkJoinPool(4));
+
+		List<ValidationResult> expected = sequential.validate((Object) data, UserListResponse.class);
+		List<ValidationResult> actual = parallel.validate((Object) data, UserListResponse.class);
+		assertEquals(143, expected.size());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getPath(), actual.get(i).getPath());
+		}
+
+		parallel.setMaxErrors(5);
+		actual = parallel.validate((Object) data, UserListResponse.class);
+		assertEquals(5, actual.size());
+		assertEquals("/users/28/name", actual.get(4).getPath());
+
+		parallel.setMode(ValidationMode.FAIL_FAST);
+		actual = parallel.validate((Object) data, UserListResponse.class);
+		assertEquals(1, actual.size());
+		assertEquals("/users/0/name", actual.get(0).getPath());
+	}
+
+	@Test
+	public void testCompiledEngine() {
+		String[] data = { "{}", "{\"code\":null,\"mail\":null,\"age\":null,\"score\":null,\"tags\":null}",
+				"{\"code\":\"\",\"mail\":1,\"age\":\"a\",\"score\":\"a\",\"rate\":\"a\",\"tags\":[]}",
+				"{\"code\":\"A\",\"mail\":\"a@b\",\"age\":151,\"score\":-1,\"rate\":2,\"tags\":{}}",
+				"{\"code\":\"A\",\"mail\":\"ab\",\"age\":-1,\"score\":101,\"rate\":-2,\"tags\":[1]}",
+				"{\"code\":\"A\",\"mail\":\"a@b\",\"age\":20,\"score\":50,\"rate\":0.5,\"tags\":{\"a\":1}}" };
+
+		Validator interpreted = new Validator();
+		Validator compiled = new Validator();
+		compiled.setEngine(ValidationEngine.COMPILED);
+		for (String json : data) {
+			List<ValidationResult> expected = interpreted.validate(json, EngineDto.class);
+			List<ValidationResult> actual = compiled.validate(json, EngineDto.class);
+			assertEquals(json, expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(json, expected.get(i).getMessageId(), actual.get(i).getMessageId());
+				assertEquals(json, expected.get(i).getPath(), actual.get(i).getPath());
+				assertEquals(json, expected.get(i).getName(), actual.get(i).getName());
+				assertEquals(json, expected.get(i).getValue(), actual.get(i).getValue());
+				assertEquals(json, expected.get(i).getValidation().getClass(), actual.get(i).getValidation().getClass());
+				assertEquals(json, expected.get(i).getMessage(), actual.get(i).getMessage());
+			}
+		}
+		assertEquals(6, interpreted.validate(data[2], EngineDto.class).size());
+		assertEquals(0, interpreted.validate(data[5], EngineDto.class).size());
+	}
+
+	@Test
+	public void testCompiledNumbers() {
+		Validator interpreted = new Validator();
+		Validator compiled = new Validator();
+		compiled.setEngine(ValidationEngine.COMPILED);
+
+		Object[][] values = { { Integer.valueOf(5), Integer.valueOf(11) }, { Long.valueOf(5), Long.valueOf(-1) },
+				{ new BigDecimal("5"), new BigDecimal("10.5") }, { Short.valueOf((short) 5), Short.valueOf((short) -1) },
+				{ Float.valueOf(5), Float.valueOf(10.5f) }, { Double.valueOf(5), Double.valueOf(-0.5) } };
+		String[] names = { "i", "l", "d", "s", "f", "w" };
+		for (int i = 0; i < values.length; i++) {
+			for (int j = 0; j < values[i].length; j++) {
+				Map<String, Object> data = new HashMap<String, Object>();
+				data.put(names[i], values[i][j]);
+				List<ValidationResult> expected = interpreted.validate(data, BoxedNumberDto.class);
+				List<ValidationResult> actual = compiled.validate(data, BoxedNumberDto.class);
+				String message = names[i] + "=" + values[i][j];
+				assertEquals(message, j, expected.size());
+				assertEquals(message, j, actual.size());
+				if (1 == j) {
+					assertEquals(message, expected.get(0).getMessageId(), actual.get(0).getMessageId());
+					assertEquals(message, "/" + names[i], actual.get(0).getPath());
+				}
+			}
+		}
+
+		BoxedNumberDto dto = new BoxedNumberDto();
+		dto.i = 5;
+		dto.l = 5L;
+		dto.d = new BigDecimal("5");
+		assertEquals(0, interpreted.validate(dto, BoxedNumberDto.class).size());
+		assertEquals(0, compiled.validate(dto, BoxedNumberDto.class).size());
+		dto.i = 11;
+		dto.l = -1L;
+		dto.d = new BigDecimal("10.5");
+		assertEquals(3, interpreted.validate(dto, BoxedNumberDto.class).size());
+		assertEquals(3, compiled.validate(dto, BoxedNumberDto.class).size());
+	}
+
+	@Test
+	public void testCompiledNumberBounds() {
+		Validator interpreted = new Validator();
+		Validator compiled = new Validator();
+		compiled.setEngine(ValidationEngine.COMPILED);
+
+		Object[] ids = { Long.valueOf(9007199254740992L), Long.valueOf(9007199254740993L),
+				new BigDecimal("9007199254740992"), new BigDecimal("9007199254740992.5") };
+		Object[] rates = { new BigDecimal("0.1"), new BigDecimal("0.10000000000000001"), Double.valueOf(0.1) };
+		for (int i = 0; i < ids.length; i++) {
+			Map<String, Object> data = new HashMap<String, Object>();
+			data.put("id", ids[i]);
+			assertEquals(String.valueOf(ids[i]), i % 2, interpreted.validate(data, NumberDto.class).size());
+			assertEquals(String.valueOf(ids[i]), i % 2, compiled.validate(data, NumberDto.class).size());
+		}
+		for (int i = 0; i < rates.length; i++) {
+			Map<String, Object> data = new HashMap<String, Object>();
+			data.put("rate", rates[i]);
+			int expected = (1 == i) ? 1 : 0;
+			assertEquals(String.valueOf(rates[i]), expected, interpreted.validate(data, NumberDto.class).size());
+			assertEquals(String.valueOf(rates[i]), expected, compiled.validate(data, NumberDto.class).size());
+		}
+	}
+
+	@Test
+	public void testSharedValidation() throws Exception {
+		final Validation validation = new PathEchoValidation();
+		final MessageBundle messages = new MessageBundle();
+		final AtomicInteger errors = new AtomicInteger();
+
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			final String path = "/thread" + i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						ValidationContext context = new ValidationContext(null, "name", path, null, messages);
+						if (!path.equals(validation.validate(context).getMessage())) {
+							errors.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(0, errors.get());
+	}
+
+	@Test
+	public void testCustomResultContext() {
+		String data = "{\"result\":true,\"users\":[{\"name\":\"a\",\"aaaa\":\"abc\"}]}";
+		Validator validator = new Validator();
+		List<List<ValidationResult>> results = new ArrayList<List<ValidationResult>>();
+		results.add(validator.validate(data, UserListResponse.class));
+		results.add(validator.validate(new StringReader(data), UserListResponse.class));
+		for (List<ValidationResult> result : results) {
+			assertEquals(1, result.size());
+			assertEquals("エラー", result.get(0).getMessage());
+			assertEquals("/users/0/aaaa", result.get(0).getPath());
+			assertEquals("aaaa", result.get(0).getName());
+			assertEquals("abc", result.get(0).getValue());
+			assertTrue(result.get(0).getValidation() instanceof CustomVali);
+		}
+	}
+
+	@Test
+	public void testCustomValidationFailure() {
+		class BrokenDto {
+			@CustomValidate(NoConstructorValidation.class)
+			private String value;
+		}
+		Validator validator = new Validator();
+		try {
+			validator.validate("{\"value\":\"a\"}", BrokenDto.class);
+			fail();
+		} catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof NoSuchMethodException);
+		}
+		try {
+			validator.validate(new HashMap<String, Object>(), BrokenDto.class);
+			fail();
+		} catch (IllegalStateException ex) {
+			assertTrue(ex.getCause() instanceof NoSuchMethodException);
+		}
+		assertEquals(1, validator.validate("{\"value\":", BrokenDto.class).size());
+	}
+
+	@Test
+	public void testLazyMessage() {
+		Validation validation = new BundleMessageValidation();
+		ValidationPath path = new ValidationPath();
+		path.push("users");
+		path.push(0);
+		path.push("name");
+		ValidationContext context = new ValidationContext("aa", "name", path, null, new MessageBundle());
+		ValidationResult result = validation.validate(context);
+
+		assertFalse(result.isResult());
+		assertEquals("Required.required", result.getMessageId());
+		assertSame(validation, result.getValidation());
+		assertEquals("/users/0/name", result.getPath());
+		assertTrue(result.getMessage().startsWith("name "));
+		assertTrue(result.getMessage().endsWith("[/users/0/name]"));
+	}
+
+	@Test
+	public void testBean() {
+		UserDto user1 = new UserDto();
+		user1.name = "a";
+		UserDto user2 = new UserDto();
+		UserListResponse response = new UserListResponse();
+		response.users = new ArrayList<UserDto>();
+		response.users.add(user1);
+		response.users.add(user2);
+
+		Validator validator = new Validator();
+		List<ValidationResult> results = validator.validate(response, UserListResponse.class);
+		assertEquals(1, results.size());
+		assertEquals("/users/1/name", results.get(0).getPath());
+
+		EngineDto engine = new EngineDto();
+		engine.code = "c";
+		engine.mail = "a@b";
+		engine.age = 200;
+		engine.score = -1;
+		engine.rate = 0.5;
+		results = validator.validate(engine, EngineDto.class);
+		assertEquals(2, results.size());
+		assertEquals("/age", results.get(0).getPath());
+		assertEquals(Long.valueOf(200), results.get(0).getValue());
+		assertEquals("/score", results.get(1).getPath());
+
+		assertEquals(0, validator.validate(user1, EngineDto.class).size());
+	}
+
+	@Test
+	public void testBeanCycle() {
+		TreeDto root = new TreeDto();
+		root.name = "root";
+		root.parent = root;
+		TreeDto child = new TreeDto();
+		child.parent = root;
+		root.children = new ArrayList<TreeDto>();
+		root.children.add(child);
+		root.children.add(root);
+
+		PlainNode plain = new PlainNode();
+		plain.next = plain;
+		plain.user = new UserDto();
+		root.plain = plain;
+
+		Validator validator = new Validator();
+		List<ValidationResult> results = validator.validate(root, TreeDto.class);
+		assertEquals(1, results.size());
+		assertEquals("/children/0/name", results.get(0).getPath());
+
+		validator.setParallelThreshold(1);
+		results = validator.validate(root, TreeDto.class);
+		assertEquals(1, results.size());
+		assertEquals("/children/0/name", results.get(0).getPath());
+
+		assertTrue(Validator.isTarget(TreeDto.class));
+		assertTrue(Validator.isTarget(UserPage.class));
+		assertFalse(Validator.isTarget(PlainNode.class));
+	}
+
+	@Test
+	public void testBeanCheckedFields() throws Exception {
+		Validator validator = new Validator();
+		assertEquals(2, validator.getPlan(NumberDto.class).checkedFields().length);
+
+		ClassValidationPlan nested = validator.getPlan(NestedDto.class);
+		assertEquals(4, nested.getFields().size());
+		assertEquals(3, nested.checkedFields().length);
+		for (FieldValidationPlan field : nested.checkedFields()) {
+			assertFalse("names".equals(field.getName()));
+		}
+	}
+
+	@Test
+	public void testInaccessibleField() throws Exception {
+		Validator validator = new Validator();
+		ClassValidationPlan plan = validator.getPlan(EventDto.class);
+		assertNull(plan.getField("source").getter());
+
+		EventDto dto = new EventDto();
+		List<ValidationResult> results = validator.validate(dto, EventDto.class);
+		assertEquals(1, results.size());
+		assertEquals("/name", results.get(0).getPath());
+	}
+
+	@Test
+	public void testPath() {
+		ValidationPath path = new ValidationPath();
+		assertEquals("", path.toString());
+		for (int i = 0; i < 20; i++) {
+			path.push(i);
+		}
+		assertEquals(20, path.depth());
+		for (int i = 0; i < 20; i++) {
+			path.pop();
+		}
+		path.push("a/b");
+		path.push("m~n");
+		assertEquals("/a~1b/m~0n", path.toString());
+		ValidationPath copy = path.copy();
+		path.pop();
+		assertEquals("/a~1b/m~0n", copy.toString());
+		assertEquals("/a~1b", path.toString());
+	}
+
+	@Test
+	public void testGeneratedPlan() throws Exception {
+		Set<Class<?>> types = new HashSet<Class<?>>();
+		for (ValidationPlanFactory factory : ServiceLoader.load(ValidationPlanFactory.class)) {
+			types.add(factory.getType());
+		}
+		assertTrue(types.contains(UserListResponse.class));
+		assertTrue(types.contains(EngineDto.class));
+
+		Validator validator = new Validator();
+		ClassValidationPlan plan = validator.getPlan(UserListResponse.class);
+		assertEquals(4, plan.getFields().size());
+		assertEquals("result", plan.getFields().get(0).getName());
+		FieldValidationPlan users = plan.getField("users");
+		assertEquals(UserDto.class, users.getElementType());
+		assertEquals(3, users.getValidations().size());
+		assertEquals(1, users.getValidations().get(0).order());
+		assertEquals(3, users.getValidations().get(2).order());
+
+		FieldValidationPlan aaaa = validator.getPlan(UserDto.class).getField("aaaa");
+		assertTrue(aaaa.isCustom());
+		assertTrue(aaaa.getValidations().get(0) instanceof CustomVali);
+	}
+
+	@Test
+	public void testGeneratedPlanLoader() throws Exception {
+		final String[] names = { UserDto.class.getName(), "org.azkfw.validator.ValidatorTest_UserDto_ValidationPlanFactory" };
+		ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+				synchronized (getClassLoadingLock(name)) {
+					if (!Arrays.asList(names).contains(name)) {
+						return super.loadClass(name, resolve);
+					}
+					Class<?> clazz = findLoadedClass(name);
+					if (null == clazz) {
+						try {
+							InputStream stream = getResourceAsStream(name.replace('.', '/') + ".class");
+							try {
+								byte[] bytes = stream.readAllBytes();
+								clazz = defineClass(name, bytes, 0, bytes.length);
+							} finally {
+								stream.close();
+							}
+						} catch (IOException ex) {
+							throw new ClassNotFoundException(name, ex);
+						}
+					}
+					return clazz;
+				}
+			}
+
+			@Override
+			public Enumeration<URL> getResources(final String name) throws IOException {
+				if (name.startsWith("META-INF/services/")) {
+					return Collections.emptyEnumeration();
+				}
+				return super.getResources(name);
+			}
+		};
+		assertFalse(ServiceLoader.load(ValidationPlanFactory.class, loader).iterator().hasNext());
+		Class<?> isolated = loader.loadClass(UserDto.class.getName());
+		assertNotSame(UserDto.class, isolated);
+		assertTrue(Validator.hasFactory(isolated));
+		assertEquals(2, new Validator().getPlan(isolated).getFields().size());
+	}
+
+	@Test
+	public void testRegister() throws Exception {
+		Validator validator = new Validator();
+		WarmupReport report = validator.register(UserListResponse.class);
+		assertEquals(2, report.getClasses().size());
+		assertTrue(report.getClasses().contains(UserDto.class));
+		assertTrue(0 <= report.getPlanNanos(UserDto.class));
+		assertEquals(-1, report.getNanos(EngineDto.class));
+
+		ValidatorWarmup warmup = new ValidatorWarmup(validator);
+		warmup.setLocales(java.util.Locale.ENGLISH, java.util.Locale.JAPANESE);
+		warmup.setIterations(2);
+		report = warmup.register(EngineDto.class);
+		assertTrue(0 < report.getRunNanos(EngineDto.class));
+
+		report = validator.registerPackage("org.azkfw.validator");
+		assertTrue(report.getClasses().contains(UserListResponse.class));
+		assertTrue(report.getClasses().contains(EngineDto.class));
+		assertFalse(report.getClasses().contains(Validator.class));
+	}
+
+	@Test
+	public void testRegisterIsolation() throws Exception {
+		DefaultValidationMetrics metrics = new DefaultValidationMetrics();
+		Validator validator = new Validator();
+		validator.setMetrics(metrics);
+		validator.setRuleOrdering(RuleOrdering.DETERMINISTIC);
+		validator.setRuleSampleInterval(1);
+
+		ValidatorWarmup warmup = new ValidatorWarmup(validator);
+		warmup.setIterations(AdaptiveRuleOrder.REORDER_SAMPLES);
+		assertTrue(0 < warmup.register(OrderDto.class).getRunNanos(OrderDto.class));
+
+		assertNull(metrics.getDocumentStats(OrderDto.class));
+		assertNull(metrics.getObjectStats(OrderDto.class));
+		for (RuleOrderReport.FieldOrder field : validator.getRuleOrderReport().getFields()) {
+			assertEquals(0, field.getSamples());
+		}
+
+		validator.validate("{\"code\":\"a\",\"score\":1}", OrderDto.class);
+		assertEquals(1, metrics.getDocumentStats(OrderDto.class).getCount());
+		assertEquals(1, validator.getRuleOrderReport().getFields().get(0).getSamples());
+	}
+
+	@Test
+	public void testGenericTypes() throws Exception {
+		Validator validator = new Validator();
+		FieldValidationPlan items = validator.getPlan(UserPage.class).getField("items");
+		assertEquals("List<UserDto>", items.getModel().toString());
+		ClassValidationPlan plan = validator.getPlan(NestedDto.class);
+		assertEquals("List<List<UserDto>>", plan.getField("matrix").getModel().toString());
+		assertEquals("Map<String, UserDto>", plan.getField("byId").getModel().toString());
+		assertEquals("List<UserDto>", plan.getField("array").getModel().toString());
+		assertEquals("List<String>", plan.getField("names").getModel().toString());
+
+		String json = "{\"items\":[{\"name\":\"a\"},{}]}";
+		assertEquals("/items/1/name", validator.validate(json, UserPage.class).get(0).getPath());
+		assertEquals("/items/1/name", validator.validate(new StringReader(json), UserPage.class).get(0).getPath());
+
+		json = "{\"matrix\":[[],[{}]],\"byId\":{\"x\":{}},\"array\":[{}],\"names\":[\"a\"]}";
+		List<List<ValidationResult>> nested = new ArrayList<List<ValidationResult>>();
+		nested.add(validator.validate(json, NestedDto.class));
+		nested.add(validator.validate(new StringReader(json), NestedDto.class));
+		for (List<ValidationResult> results : nested) {
+			assertEquals(3, results.size());
+			assertEquals("/matrix/1/0/name", results.get(0).getPath());
+			assertEquals("/byId/x/name", results.get(1).getPath());
+			assertEquals("/array/0/name", results.get(2).getPath());
+		}
+
+		NestedDto bean = new NestedDto();
+		bean.array = new UserDto[] { new UserDto() };
+		List<ValidationResult> results = validator.validate(bean, NestedDto.class);
+		assertEquals(1, results.size());
+		assertEquals("/array/0/name", results.get(0).getPath());
+	}
+
+	@Test
+	public void testNumbers() {
+		Validator validator = new Validator();
+		assertEquals(0, validator.validate(new StringReader("{\"id\":9007199254740992,\"rate\":0.1}"), NumberDto.class)
+				.size());
+
+		List<ValidationResult> results = validator.validate(new StringReader(
+				"{\"id\":9007199254740993,\"rate\":0.100000000000000000001}"), NumberDto.class);
+		assertEquals(2, results.size());
+		assertEquals("/id", results.get(0).getPath());
+		assertEquals(Long.valueOf(9007199254740993L), results.get(0).getValue());
+		assertEquals("/rate", results.get(1).getPath());
+		assertEquals(new java.math.BigDecimal("0.100000000000000000001"), results.get(1).getValue());
+
+		results = validator.validate(new StringReader("{\"id\":99999999999999999999,\"rate\":-1e-400}"),
+				NumberDto.class);
+		assertEquals(2, results.size());
+		assertEquals("/rate", results.get(1).getPath());
+
+		NumberDto bean = new NumberDto();
+		bean.id = 9007199254740993L;
+		results = validator.validate(bean, NumberDto.class);
+		assertEquals(1, results.size());
+		assertEquals("/id", results.get(0).getPath());
+
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("id", java.math.BigInteger.ONE.shiftLeft(64));
+		map.put("rate", Integer.valueOf(0));
+		results = validator.validate((Object) map, NumberDto.class);
+		assertEquals(1, results.size());
+		assertEquals("Maximum.limit", results.get(0).getMessageId());
+	}
+
+	@Test
+	public void testCustomLifecycle() throws Exception {
+		final AtomicInteger created = new AtomicInteger();
+		Validator validator = new Validator();
+		validator.setCustomValidationFactory(new CustomValidationFactory() {
+			@Override
+			public Validation create(final Class<? extends Validation> clazz) throws Exception {
+				created.incrementAndGet();
+				return clazz.getDeclaredConstructor().newInstance();
+			}
+		});
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, validator.validate("{\"value\":\"ab\"}", LifecycleDto.class).size());
+		}
+		assertEquals(2, created.get());
+		FieldValidationPlan field = validator.getPlan(LifecycleDto.class).getField("value");
+		InitValidation init = (InitValidation) field.getValidations().get(0);
+		assertEquals("value", init.fieldName);
+		assertEquals(1, init.length);
+
+		final List<List<ValidationResult>> results = new ArrayList<List<ValidationResult>>();
+		final Validator shared = validator;
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				results.add(shared.validate("{\"value\":\"abc\"}", LifecycleDto.class));
+			}
+		});
+		thread.start();
+		thread.join();
+		assertEquals(1, results.get(0).size());
+		assertEquals(3, created.get());
+	}
+
+	@Test
+	public void testRuleOrdering() throws Exception {
+		Validator validator = new Validator();
+		validator.setRuleOrdering(RuleOrdering.DETERMINISTIC);
+		validator.setRuleSampleInterval(1);
+
+		OrderDto dto = new OrderDto();
+		dto.code = "ABC";
+		dto.score = 500;
+		for (int i = 0; i < AdaptiveRuleOrder.REORDER_SAMPLES; i++) {
+			assertEquals(2, validator.validate("{\"code\":\"ABC\",\"score\":500}", OrderDto.class).size());
+			assertEquals(2, validator.validate(dto, OrderDto.class).size());
+		}
+
+		RuleOrderReport report = validator.getRuleOrderReport();
+		assertEquals(2, report.getFields().size());
+		for (RuleOrderReport.FieldOrder field : report.getFields()) {
+			assertEquals(AdaptiveRuleOrder.REORDER_SAMPLES * 2, field.getSamples());
+			RuleOrderReport.Rule first = field.getRules().get(0);
+			assertEquals(1, first.getDeclaredIndex());
+			assertEquals(1.0, first.getFailureRate());
+			assertEquals(0.0, field.getRules().get(1).getFailureRate());
+		}
+		assertEquals("code", report.getFields().get(0).getName());
+		assertTrue(report.getFields().get(0).getRules().get(0).getValidation() instanceof PatternValidation);
+		assertTrue(report.getFields().get(1).getRules().get(0).getValidation() instanceof MaximumValidation);
+		assertTrue(validator.getPlan(OrderDto.class).getField("code").getValidations().get(1) instanceof PatternValidation);
+
+		dto.code = null;
+		dto.score = 50;
+		List<ValidationResult> results = validator.validate(dto, OrderDto.class);
+		assertEquals(1, results.size());
+		assertEquals("/code", results.get(0).getPath());
+	}
+
+	@Test
+	public void testRuleSampling() {
+		Validator validator = new Validator();
+		validator.setRuleOrdering(RuleOrdering.ADAPTIVE);
+		validator.setRuleSampleInterval(4);
+
+		OrderDto dto = new OrderDto();
+		dto.code = "ABC";
+		dto.score = 500;
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(2, validator.validate(dto, OrderDto.class).size());
+		}
+		for (RuleOrderReport.FieldOrder field : validator.getRuleOrderReport().getFields()) {
+			assertTrue(String.valueOf(field.getSamples()), 0 < field.getSamples() && field.getSamples() < 1000);
+		}
+	}
+
+	@Test
+	public void testPatternCache() {
+		PatternCache cache = new PatternCache(2);
+		java.util.regex.Pattern a = cache.get("a+");
+		assertSame(a, cache.get("a+"));
+		cache.get("b+");
+		cache.get("c+");
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+		assertEquals(1, cache.getEvictionCount());
+		assertNotSame(a, cache.get("a+"));
+	}
+
+	@Test
+	public void testBundleReload() {
+		MessageBundle bundle = new MessageBundle(java.util.Locale.JAPANESE);
+		assertEquals("1.0.0", bundle.get("Message.version", java.util.Locale.ENGLISH));
+		MessageTemplate template = bundle.getTemplate("Required.required", java.util.Locale.JAPANESE);
+		assertSame(template, bundle.getTemplate("Required.required", java.util.Locale.JAPANESE));
+
+		bundle.reload();
+		assertEquals("1.0.0", bundle.get("Message.version"));
+		assertNotSame(template, bundle.getTemplate("Required.required", java.util.Locale.JAPANESE));
+	}
+
+	@Test
+	public void testBundleConcurrentReload() throws Exception {
+		final MessageBundle bundle = new MessageBundle(java.util.Locale.JAPANESE);
+		final java.util.Locale[] locales = { java.util.Locale.ENGLISH, java.util.Locale.FRENCH,
+				java.util.Locale.GERMAN, java.util.Locale.ITALIAN, java.util.Locale.KOREAN };
+		final java.util.concurrent.atomic.AtomicReference<Throwable> error = new java.util.concurrent.atomic.AtomicReference<Throwable>();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int offset = t;
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for (int i = 0; i < 200; i++) {
+							if (0 == offset) {
+								bundle.reload();
+							} else {
+								java.util.Locale locale = locales[(i + offset) % locales.length];
+								assertEquals("1.0.0", bundle.get("Message.version", locale));
+							}
+						}
+					} catch (Throwable ex) {
+						error.compareAndSet(null, ex);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(error.get());
+		for (java.util.Locale locale : locales) {
+			assertEquals("1.0.0", bundle.get("Message.version", locale));
+		}
+	}
+
+	private static void assertSamePaths(final String message, final List<ValidationResult> expected,
+			final List<ValidationResult> actual) {
+		assertEquals(message, expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(message, expected.get(i).getPath(), actual.get(i).getPath());
+			assertEquals(message, expected.get(i).getMessageId(), actual.get(i).getMessageId());
+		}
 	}
 
 	public static abstract class AbstractRequest {
@@ -83,10 +1018,114 @@ public class ValidatorTest extends TestCase {
 		private String aaaa;
 	}
 
+	public static class GenericPage<T> {
+		@NotNull
+		private List<T> items;
+	}
+
+	public static class UserPage extends GenericPage<UserDto> {
+	}
+
+	public static class NestedDto {
+		private List<List<UserDto>> matrix;
+
+		private Map<String, UserDto> byId;
+
+		private UserDto[] array;
+
+		private List<String> names;
+	}
+
+	public static class EventDto extends java.util.EventObject {
+
+		/** serialVersionUID */
+		private static final long serialVersionUID = -3185204659387132508L;
+
+		@NotNull
+		private String name;
+
+		public EventDto() {
+			super("event");
+		}
+	}
+
+	public static class TreeDto {
+		@NotNull
+		private String name;
+
+		private TreeDto parent;
+
+		private List<TreeDto> children;
+
+		private PlainNode plain;
+	}
+
+	public static class PlainNode {
+		private PlainNode next;
+
+		private UserDto user;
+	}
+
+	public static class NumberDto {
+		@Maximum(9007199254740992.0)
+		private long id;
+
+		@Minimum(0)
+		@Maximum(0.1)
+		private double rate;
+	}
+
+	public static class BoxedNumberDto {
+		@Minimum(0)
+		@Maximum(10)
+		private Integer i;
+
+		@Range(min = 0, max = 10)
+		private Long l;
+
+		@Maximum(10)
+		private BigDecimal d;
+
+		@Minimum(0)
+		private Short s;
+
+		@Maximum(10)
+		private Float f;
+
+		@Minimum(0)
+		private Double w;
+	}
+
+	public static class EngineDto {
+
+		@Required(order = 1)
+		@NotNull(order = 2)
+		@NotEmpty(order = 3)
+		private String code;
+
+		@Pattern(value = "[a-z]+@[a-z]+", order = 2)
+		@NotNull(order = 1)
+		private String mail;
+
+		@Range(min = 0, max = 150)
+		private int age;
+
+		@Minimum(0)
+		@Maximum(100)
+		private double score;
+
+		@Maximum(value = 1, order = 2)
+		@Minimum(value = -1, order = 1)
+		private double rate;
+
+		@NotEmpty
+		private Object tags;
+	}
+
 	public static class CustomVali extends AbstractValidation {
 
 		@Override
-		protected ValidationResult doValidate(final Object value) {
+		protected ValidationResult doValidate(final Object value, final ValidationContext context) {
 			if (null != value) {
 				String s = value.toString();
 				if (2 != s.length()) {
@@ -97,4 +1136,87 @@ public class ValidatorTest extends TestCase {
 		}
 
 	}
+
+	public static class OrderDto {
+		@OrderIndependent
+		@NotNull(order = 1)
+		@Pattern(value = "[a-z]+", order = 2)
+		private String code;
+
+		@OrderIndependent
+		@Minimum(value = 0, order = 1)
+		@Maximum(value = 100, order = 2)
+		private double score;
+	}
+
+	public static class LifecycleDto {
+		@CustomValidate({ InitValidation.class, ConfinedValidation.class })
+		private String value;
+	}
+
+	public static class InitValidation extends AbstractValidation implements InitializableValidation {
+
+		private String fieldName;
+
+		private int length;
+
+		@Override
+		public void initialize(final String name, final java.lang.reflect.Field field) {
+			this.fieldName = field.getName();
+			this.length = fieldName.length() - 4;
+		}
+
+		@Override
+		protected ValidationResult doValidate(final Object value, final ValidationContext context) {
+			return ValidationResult.success();
+		}
+	}
+
+	@NotThreadSafe
+	public static class ConfinedValidation extends AbstractValidation {
+
+		private final StringBuilder buffer = new StringBuilder();
+
+		@Override
+		protected ValidationResult doValidate(final Object value, final ValidationContext context) {
+			buffer.setLength(0);
+			buffer.append(value);
+			if (2 != buffer.length()) {
+				return ValidationResult.error("エラー");
+			}
+			return ValidationResult.success();
+		}
+	}
+
+	public static class NoConstructorValidation extends AbstractValidation {
+
+		public NoConstructorValidation(final String message) {
+			super("", 1, message);
+		}
+
+		@Override
+		protected ValidationResult doValidate(final Object value, final ValidationContext context) {
+			return ValidationResult.success();
+		}
+	}
+
+	public static class PathEchoValidation extends AbstractValidation {
+
+		public PathEchoValidation() {
+			super("", 1, "${path}");
+		}
+
+		@Override
+		protected ValidationResult doValidate(final Object value, final ValidationContext context) {
+			return ValidationResult.error(getDecorateString(getMessage("PathEcho", context), context));
+		}
+	}
+
+	public static class BundleMessageValidation extends AbstractValidation {
+
+		@Override
+		protected ValidationResult doValidate(final Object value, final ValidationContext context) {
+			return error("Required.required", context);
+		}
+	}
 }